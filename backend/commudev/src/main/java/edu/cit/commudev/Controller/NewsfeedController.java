@@ -1,8 +1,16 @@
 package edu.cit.commudev.controller;
 
+import edu.cit.commudev.config.AuthenticatedUser;
+import edu.cit.commudev.config.ConditionalGet;
+import edu.cit.commudev.dto.LikeStatusDto;
 import edu.cit.commudev.dto.NewsfeedRequestDTO;
+import edu.cit.commudev.dto.PostEngagementDto;
+import edu.cit.commudev.dto.PostViewDto;
+import edu.cit.commudev.dto.TimelinePageDto;
 import edu.cit.commudev.entity.NewsfeedEntity;
+import edu.cit.commudev.service.HomeFeedService;
 import edu.cit.commudev.service.NewsfeedService;
+import edu.cit.commudev.service.NewsfeedVersionProvider;
 import edu.cit.commudev.entity.User;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,15 +24,18 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/newsfeed")
-@CrossOrigin(origins = {"http://localhost:5173", "https://it-342-commu-dev-v675-git-master-nokitakis-projects.vercel.app", "https://it-342-commu-dev-v675.vercel.app"})
 public class NewsfeedController {
 
     @Autowired
     private NewsfeedService newsfeedService;
 
+    @Autowired
+    private HomeFeedService homeFeedService;
+
     // Create post (requires authentication)
     @PostMapping("/create")
     public ResponseEntity<?> createNewsfeed(@RequestBody NewsfeedRequestDTO newsfeedRequestDTO) {
@@ -36,7 +47,8 @@ public class NewsfeedController {
             newsfeedEntity.setPostStatus(newsfeedRequestDTO.getPost_status());
             
             NewsfeedEntity createdNewsfeed = newsfeedService.createNewsfeed(newsfeedEntity);
-            return new ResponseEntity<>(createdNewsfeed, HttpStatus.CREATED);
+            PostViewDto post = newsfeedService.getPostView(createdNewsfeed.getNewsfeedId());
+            return new ResponseEntity<>(post, HttpStatus.CREATED);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to create post: " + e.getMessage());
@@ -45,11 +57,56 @@ public class NewsfeedController {
     }
 
 
+    // Get one page of the timeline, newest first; pass nextCursor back as cursor for older posts
+    @GetMapping("/timeline")
+    public ResponseEntity<?> getTimeline(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + NewsfeedService.DEFAULT_PAGE_SIZE) int size) {
+        try {
+            TimelinePageDto page = newsfeedService.getTimeline(cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Get one page of the current user's home timeline (own and friends' posts), newest first
+    @GetMapping("/home")
+    public ResponseEntity<?> getHomeTimeline(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + NewsfeedService.DEFAULT_PAGE_SIZE) int size) {
+        try {
+            TimelinePageDto page = homeFeedService.getHomeTimeline(user.getId(), cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Get like counts, comment counts and the viewer's like state for a page of posts, e.g. ?ids=3,5,8
+    @GetMapping("/engagement")
+    public ResponseEntity<?> getEngagement(@RequestParam List<Integer> ids) {
+        try {
+            List<PostEngagementDto> engagement = newsfeedService.getEngagement(ids);
+            return new ResponseEntity<>(engagement, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     // Get all posts (could be admin-only or paginated in production)
     @GetMapping("/all")
+    @ConditionalGet(NewsfeedVersionProvider.class)
     public ResponseEntity<?> getAllNewsfeeds() {
         try {
-            List<NewsfeedEntity> newsfeeds = newsfeedService.getAllNewsfeeds();
+            List<PostViewDto> newsfeeds = newsfeedService.getAllNewsfeeds();
             return new ResponseEntity<>(newsfeeds, HttpStatus.OK);
         } catch (Exception e) {
             // Log the exception
@@ -66,7 +123,7 @@ public class NewsfeedController {
     @GetMapping("/my-posts")
     public ResponseEntity<?> getCurrentUserPosts() {
         try {
-            List<NewsfeedEntity> posts = newsfeedService.getCurrentUserPosts();
+            List<PostViewDto> posts = newsfeedService.getCurrentUserPosts();
             return new ResponseEntity<>(posts, HttpStatus.OK);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
@@ -79,7 +136,7 @@ public class NewsfeedController {
     @GetMapping("/user/{username}")
     public ResponseEntity<?> getUserPosts(@PathVariable String username) {
         try {
-            List<NewsfeedEntity> posts = newsfeedService.getUserPostsByUsername(username);
+            List<PostViewDto> posts = newsfeedService.getUserPostsByUsername(username);
             return new ResponseEntity<>(posts, HttpStatus.OK);
         } catch (AccessDeniedException e) {
             Map<String, String> errorResponse = new HashMap<>();
@@ -96,7 +153,7 @@ public class NewsfeedController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getNewsfeedById(@PathVariable int id) {
         try {
-            NewsfeedEntity newsfeed = newsfeedService.getNewsfeedById(id);
+            PostViewDto newsfeed = newsfeedService.getPostView(id);
             return new ResponseEntity<>(newsfeed, HttpStatus.OK);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
@@ -109,7 +166,7 @@ public class NewsfeedController {
     public ResponseEntity<?> updateNewsfeed(@PathVariable int id, @RequestBody NewsfeedEntity newsfeedDetails) {
         try {
             NewsfeedEntity updatedNewsfeed = newsfeedService.updateNewsfeed(id, newsfeedDetails);
-            return new ResponseEntity<>(updatedNewsfeed, HttpStatus.OK);
+            return new ResponseEntity<>(newsfeedService.getPostView(updatedNewsfeed.getNewsfeedId()), HttpStatus.OK);
         } catch (AccessDeniedException e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Access denied: " + e.getMessage());
@@ -138,7 +195,7 @@ public ResponseEntity<?> updateNewsfeedSimple(
         
         // Call the existing service method
         NewsfeedEntity updatedNewsfeed = newsfeedService.updateNewsfeed(id, newsfeedDetails);
-        return new ResponseEntity<>(updatedNewsfeed, HttpStatus.OK);
+        return new ResponseEntity<>(newsfeedService.getPostView(updatedNewsfeed.getNewsfeedId()), HttpStatus.OK);
     } catch (AccessDeniedException e) {
         Map<String, String> errorResponse = new HashMap<>();
         errorResponse.put("error", "Access denied: " + e.getMessage());
@@ -154,18 +211,12 @@ public ResponseEntity<?> updateNewsfeedSimple(
     @PatchMapping("/like/{id}")
     public ResponseEntity<?> toggleLikePost(@PathVariable int id) {
         try {
-            NewsfeedEntity likedPost = newsfeedService.toggleLike(id);
-            
-            // Get additional like status information
-            Map<String, Object> likeStatus = newsfeedService.getLikeStatus(id);
-            
-            // Create response with post and like status
-            Map<String, Object> response = new HashMap<>();
-            response.put("post", likedPost);
-            response.put("liked", likeStatus.get("liked"));
-            response.put("likeCount", likeStatus.get("likeCount"));
-            
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            LikeStatusDto likeStatus = newsfeedService.toggleLike(id);
+            return new ResponseEntity<>(likeStatus, HttpStatus.OK);
+        } catch (NoSuchElementException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Post not found: " + e.getMessage());
+            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to toggle like: " + e.getMessage());
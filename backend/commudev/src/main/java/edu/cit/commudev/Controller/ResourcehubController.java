@@ -12,7 +12,6 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/resourcehub")
-@CrossOrigin(origins = {"http://localhost:5173", "https://it-342-commu-dev-v675-git-master-nokitakis-projects.vercel.app", "https://it-342-commu-dev-v675.vercel.app"})
 public class ResourcehubController {
 
     @Autowired
@@ -1,6 +1,8 @@
 package edu.cit.commudev.controller;
 
+import edu.cit.commudev.config.TokenAuthenticator;
 import edu.cit.commudev.dto.PublicUserProfileDto;
+import edu.cit.commudev.dto.RefreshTokenDto;
 import edu.cit.commudev.dto.UserDto;
 import edu.cit.commudev.dto.UserProfileUpdateDto;
 import edu.cit.commudev.entity.User;
@@ -25,14 +27,15 @@ import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/users")
-@CrossOrigin(origins = {"http://localhost:5173", "https://it-342-commu-dev-v675-git-master-nokitakis-projects.vercel.app", "https://it-342-commu-dev-v675.vercel.app"})  
 public class UserController {
     
     private final UserService userService;
+    private final TokenAuthenticator tokenAuthenticator;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, TokenAuthenticator tokenAuthenticator) {
         this.userService = userService;
+        this.tokenAuthenticator = tokenAuthenticator;
     }
     
     /**
@@ -203,8 +206,20 @@ public ResponseEntity<?> getUserById(@PathVariable Long userId) {
 
 
 @PostMapping("/logout")
-public ResponseEntity<?> logoutUser(HttpServletRequest request, HttpServletResponse response) {
+public ResponseEntity<?> logoutUser(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        @RequestBody(required = false) RefreshTokenDto refreshTokenDto) {
     try {
+        // Revoke the access token (and the refresh token, if sent) so they stop working before expiry
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            tokenAuthenticator.revoke(authHeader.substring(7));
+        }
+        if (refreshTokenDto != null && refreshTokenDto.getRefreshToken() != null) {
+            tokenAuthenticator.revoke(refreshTokenDto.getRefreshToken());
+        }
+
         var authentication = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null) {
             new SecurityContextLogoutHandler().logout(request, response, authentication);
@@ -8,7 +8,12 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
-@Table(name = "newsfeed")
+@Table(name = "newsfeed", indexes = {
+    // Keyset index for the timeline: ORDER BY post_date DESC, newsfeed_id DESC
+    @Index(name = "idx_newsfeed_timeline", columnList = "post_date, newsfeed_id"),
+    // Per-author timeline, used for fan-out-on-read authors in home timelines
+    @Index(name = "idx_newsfeed_author_timeline", columnList = "user_id, post_date, newsfeed_id")
+})
 public class NewsfeedEntity {
     
     @Id
@@ -31,6 +36,9 @@ public class NewsfeedEntity {
     @Column(name = "post_status")
     private String postStatus;
     
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
 
     @JsonManagedReference
     @ManyToOne(fetch = FetchType.EAGER)
@@ -59,6 +67,11 @@ public class NewsfeedEntity {
         this.postStatus = "active";
     }
     
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
     // Getters and Setters
     public int getNewsfeedId() {
         return newsfeedId;
@@ -108,6 +121,10 @@ public class NewsfeedEntity {
         this.postStatus = postStatus;
     }
     
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
     // New getter and setter for user
     public User getUser() {
         return user;
@@ -1,12 +1,22 @@
 package edu.cit.commudev.repository;
 
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import edu.cit.commudev.dto.PostViewDto;
 import edu.cit.commudev.entity.NewsfeedEntity;
 import edu.cit.commudev.entity.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NewsfeedRepo extends JpaRepository<NewsfeedEntity, Integer> {
@@ -21,4 +31,88 @@ public interface NewsfeedRepo extends JpaRepository<NewsfeedEntity, Integer> {
     
     // Find active posts by user
     List<NewsfeedEntity> findByUserAndPostStatus(User user, String status);
+    
+    /**
+     * Select clause of the post read model: post columns, author summary, comment count and whether
+     * :viewerId liked the post (false when :viewerId is null). Shared by every post view query so a
+     * page is always one statement.
+     */
+    String POST_VIEW_SELECT =
+            "SELECT new edu.cit.commudev.dto.PostViewDto(n.newsfeedId, n.postDescription, n.postType, " +
+            "n.postStatus, n.postDate, n.updatedAt, n.likeCount, " +
+            "(SELECT COUNT(c) FROM CommentEntity c WHERE c.post = n), " +
+            "CASE WHEN EXISTS (SELECT l.id FROM PostLike l WHERE l.post = n AND l.user.id = :viewerId) " +
+            "THEN true ELSE false END, " +
+            "u.id, u.username, u.firstname, u.lastname, u.profilePicture) ";
+
+    // Lock the post row (SELECT ... FOR UPDATE) so like toggles on one post run one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n.newsfeedId FROM NewsfeedEntity n WHERE n.newsfeedId = :newsfeedId")
+    Optional<Integer> lockForLikeUpdate(@Param("newsfeedId") int newsfeedId);
+
+    // In-place like counter update; never goes below zero, returns 0 if the post does not exist
+    @Modifying
+    @Query("UPDATE NewsfeedEntity n SET n.likeCount = n.likeCount + :delta " +
+           "WHERE n.newsfeedId = :newsfeedId AND n.likeCount + :delta >= 0")
+    int adjustLikeCount(@Param("newsfeedId") int newsfeedId, @Param("delta") int delta);
+
+    @Query("SELECT n.likeCount FROM NewsfeedEntity n WHERE n.newsfeedId = :newsfeedId")
+    Integer findLikeCount(@Param("newsfeedId") int newsfeedId);
+
+    @Query(POST_VIEW_SELECT +
+           "FROM NewsfeedEntity n JOIN n.user u " +
+           "WHERE n.newsfeedId = :newsfeedId")
+    Optional<PostViewDto> findViewById(@Param("newsfeedId") int newsfeedId, @Param("viewerId") Long viewerId);
+
+    @Query(POST_VIEW_SELECT +
+           "FROM NewsfeedEntity n JOIN n.user u " +
+           "ORDER BY n.postDate DESC, n.newsfeedId DESC")
+    List<PostViewDto> findAllViews(@Param("viewerId") Long viewerId);
+
+    @Query(POST_VIEW_SELECT +
+           "FROM NewsfeedEntity n JOIN n.user u " +
+           "WHERE u.id = :userId " +
+           "ORDER BY n.postDate DESC, n.newsfeedId DESC")
+    List<PostViewDto> findViewsByUserId(@Param("userId") Long userId, @Param("viewerId") Long viewerId);
+
+    @Query(POST_VIEW_SELECT +
+           "FROM NewsfeedEntity n JOIN n.user u " +
+           "WHERE u.username = :username " +
+           "ORDER BY n.postDate DESC, n.newsfeedId DESC")
+    List<PostViewDto> findViewsByUsername(@Param("username") String username, @Param("viewerId") Long viewerId);
+
+    // Keyset timeline over the (post_date, newsfeed_id) index, projected straight into the read model
+    @Query(POST_VIEW_SELECT +
+           "FROM NewsfeedEntity n JOIN n.user u " +
+           "ORDER BY n.postDate DESC, n.newsfeedId DESC")
+    List<PostViewDto> findTimeline(@Param("viewerId") Long viewerId, Pageable pageable);
+
+    @Query(POST_VIEW_SELECT +
+           "FROM NewsfeedEntity n JOIN n.user u " +
+           "WHERE n.postDate < :postDate OR (n.postDate = :postDate AND n.newsfeedId < :newsfeedId) " +
+           "ORDER BY n.postDate DESC, n.newsfeedId DESC")
+    List<PostViewDto> findTimelineBefore(@Param("postDate") LocalDateTime postDate,
+                                         @Param("newsfeedId") int newsfeedId,
+                                         @Param("viewerId") Long viewerId,
+                                         Pageable pageable);
+
+    // Same keyset timeline restricted to a few authors (fan-out-on-read accounts in home timelines)
+    @Query(POST_VIEW_SELECT +
+           "FROM NewsfeedEntity n JOIN n.user u " +
+           "WHERE u.id IN :authorIds " +
+           "ORDER BY n.postDate DESC, n.newsfeedId DESC")
+    List<PostViewDto> findTimelineByAuthors(@Param("authorIds") Collection<Long> authorIds,
+                                            @Param("viewerId") Long viewerId,
+                                            Pageable pageable);
+
+    @Query(POST_VIEW_SELECT +
+           "FROM NewsfeedEntity n JOIN n.user u " +
+           "WHERE u.id IN :authorIds " +
+           "AND (n.postDate < :postDate OR (n.postDate = :postDate AND n.newsfeedId < :newsfeedId)) " +
+           "ORDER BY n.postDate DESC, n.newsfeedId DESC")
+    List<PostViewDto> findTimelineByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                                  @Param("postDate") LocalDateTime postDate,
+                                                  @Param("newsfeedId") int newsfeedId,
+                                                  @Param("viewerId") Long viewerId,
+                                                  Pageable pageable);
 }
\ No newline at end of file
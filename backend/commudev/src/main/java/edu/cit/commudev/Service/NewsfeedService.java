@@ -1,35 +1,53 @@
 package edu.cit.commudev.service;
 
+import edu.cit.commudev.config.CurrentUserProvider;
+import edu.cit.commudev.dto.LikeStatusDto;
+import edu.cit.commudev.dto.PostCreatedEventDto;
+import edu.cit.commudev.dto.PostEngagementDto;
+import edu.cit.commudev.dto.PostViewDto;
+import edu.cit.commudev.dto.TimelinePageDto;
 import edu.cit.commudev.entity.NewsfeedEntity;
-import edu.cit.commudev.entity.PostLike;
 import edu.cit.commudev.entity.User;
 import edu.cit.commudev.repository.CommentRepository;
+import edu.cit.commudev.repository.FeedEntryRepository;
 import edu.cit.commudev.repository.NewsfeedRepo;
 import edu.cit.commudev.repository.PostLikeRepository;
 import edu.cit.commudev.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Optional;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class NewsfeedService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final int MAX_ENGAGEMENT_BATCH = 200;
+    // Toggles lost to a unique-key race or a lock timeout/deadlock are retried this many times in all
+    private static final int MAX_LIKE_TOGGLE_ATTEMPTS = 3;
+
     @Autowired
     private NewsfeedRepo newsfeedRepo;
     
     @Autowired
-    private UserService userService;
+    private CurrentUserProvider currentUserProvider;
     
     @Autowired
     private NotificationService notificationService;
@@ -42,34 +60,95 @@ public class NewsfeedService {
     
     @Autowired
     private UserRepository userRepository;
+    
+    @Autowired
+    private FeedEntryRepository feedEntryRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private NewsfeedVersionProvider newsfeedVersionProvider;
 
     // Create post with authenticated user
+    @Transactional
     public NewsfeedEntity createNewsfeed(NewsfeedEntity newsfeed) {
         // Get the current authenticated user
-        User currentUser = userService.getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         // Set the user to the post
         newsfeed.setUser(currentUser);
         
-        // Save and return the post
-        return newsfeedRepo.save(newsfeed);
+        // Save the post; friends' home timelines are filled after commit
+        NewsfeedEntity saved = newsfeedRepo.save(newsfeed);
+        eventPublisher.publishEvent(new PostCreatedEventDto(
+                saved.getNewsfeedId(), currentUser.getId(), saved.getPostDate()));
+        newsfeedVersionProvider.markChanged();
+        return saved;
     }
 
     // Read all posts (could be restricted to admins or paginated in production)
-    public List<NewsfeedEntity> getAllNewsfeeds() {
-        return newsfeedRepo.findAll();
+    @Transactional(readOnly = true)
+    public List<PostViewDto> getAllNewsfeeds() {
+        return newsfeedRepo.findAllViews(currentUserProvider.findCurrentUserId());
+    }
+
+    /**
+     * Get one page of the global timeline, newest first.
+     * Pages are cut on (post_date, newsfeed_id), so a page costs one index range scan however many
+     * posts exist, and posts created while paging do not shift later pages.
+     *
+     * @param cursor nextCursor from the previous page, or null for the newest posts
+     * @param size requested page size (clamped to MAX_PAGE_SIZE)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public TimelinePageDto getTimeline(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        Long viewerId = currentUserProvider.findCurrentUserId();
+
+        List<PostViewDto> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = newsfeedRepo.findTimeline(viewerId, limit);
+        } else {
+            TimelineCursor position = TimelineCursor.decode(cursor);
+            posts = newsfeedRepo.findTimelineBefore(
+                    position.getPostDate(), position.getNewsfeedId(), viewerId, limit);
+        }
+
+        boolean hasMore = posts.size() > pageSize;
+        if (hasMore) {
+            posts = posts.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? TimelineCursor.encode(posts.get(posts.size() - 1)) : null;
+
+        return new TimelinePageDto(new ArrayList<>(posts), hasMore, nextCursor);
     }
 
     // Read posts by current authenticated user
-    public List<NewsfeedEntity> getCurrentUserPosts() {
-        User currentUser = userService.getCurrentUser();
-        return newsfeedRepo.findByUser(currentUser);
+    @Transactional(readOnly = true)
+    public List<PostViewDto> getCurrentUserPosts() {
+        Long currentUserId = currentUserProvider.getCurrentUserId();
+        return newsfeedRepo.findViewsByUserId(currentUserId, currentUserId);
     }
     
     // Read posts by a specific username
-    public List<NewsfeedEntity> getUserPostsByUsername(String username) {
+    @Transactional(readOnly = true)
+    public List<PostViewDto> getUserPostsByUsername(String username) {
         // This should check profile visibility, but we'll implement that in a bit
-        return newsfeedRepo.findByUserUsername(username);
+        return newsfeedRepo.findViewsByUsername(username, currentUserProvider.findCurrentUserId());
+    }
+
+    // Read one post by ID as the read model returned by the API
+    @Transactional(readOnly = true)
+    public PostViewDto getPostView(int id) {
+        return newsfeedRepo.findViewById(id, currentUserProvider.findCurrentUserId())
+                .orElseThrow(() -> new NoSuchElementException("Newsfeed with ID: " + id + " not found"));
     }
 
     // Read one post by ID
@@ -84,7 +163,7 @@ public class NewsfeedService {
         NewsfeedEntity existingNewsfeed = getNewsfeedById(id);
         
         // Get current authenticated user
-        User currentUser = userService.getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         // Check if the current user owns this post
         if (!existingNewsfeed.getUser().getId().equals(currentUser.getId())) {
@@ -97,70 +176,129 @@ public class NewsfeedService {
         existingNewsfeed.setPostStatus(newsfeedDetails.getPostStatus());
         
         // Save and return updated post
-        return newsfeedRepo.save(existingNewsfeed);
+        NewsfeedEntity saved = newsfeedRepo.save(existingNewsfeed);
+        newsfeedVersionProvider.markChanged();
+        return saved;
     }
 
-    // Toggle like a post (any user can like)
-    @Transactional
-    public NewsfeedEntity toggleLike(int id) {
-        // Get the existing post
-        NewsfeedEntity post = getNewsfeedById(id);
-        
-        // Get current authenticated user
-        User currentUser = userService.getCurrentUser();
-        
-        // Check if the user has already liked this post
-        boolean hasLiked = postLikeRepository.existsByUserAndPost(currentUser, post);
-        
-        if (hasLiked) {
-            // Unlike: Remove the like
-            Optional<PostLike> existingLike = postLikeRepository.findByUserAndPost(currentUser, post);
-            existingLike.ifPresent(like -> postLikeRepository.delete(like));
-            
-            // Update like count
-            long likeCount = postLikeRepository.countByPost(post);
-            post.setLikeCount((int) likeCount);
+    /**
+     * Toggle the current user's like on a post (any user can like).
+     * Deletes the like if it exists, otherwise inserts it, and moves like_count by one in place.
+     * The post row is locked before the like row is touched, so toggles on one post queue behind
+     * each other instead of deadlocking on the gap locks the DELETE of a missing like takes.
+     * Anything that still fails on the unique (user_id, newsfeed_id) constraint or on a lock is
+     * retried, up to MAX_LIKE_TOGGLE_ATTEMPTS times in all.
+     *
+     * @throws NoSuchElementException if the post does not exist
+     */
+    public LikeStatusDto toggleLike(int id) {
+        Long currentUserId = currentUserProvider.getCurrentUserId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LikeStatusDto likeStatus;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                likeStatus = transaction.execute(status -> applyLikeToggle(id, currentUserId));
+                break;
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                if (attempt >= MAX_LIKE_TOGGLE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+        newsfeedVersionProvider.markChanged();
+        return likeStatus;
+    }
+
+    private LikeStatusDto applyLikeToggle(int postId, Long userId) {
+        if (newsfeedRepo.lockForLikeUpdate(postId).isEmpty()) {
+            throw new NoSuchElementException("Newsfeed with ID: " + postId + " not found");
+        }
+
+        boolean liked;
+        if (postLikeRepository.deleteByUserIdAndPostId(userId, postId) > 0) {
+            newsfeedRepo.adjustLikeCount(postId, -1);
+            liked = false;
         } else {
-            // Like: Create a new like
-            PostLike newLike = new PostLike(currentUser, post);
-            postLikeRepository.save(newLike);
-            
+            newsfeedRepo.adjustLikeCount(postId, 1);
+            postLikeRepository.insertLike(userId, postId);
+            liked = true;
+
             // Create notification for the post owner (only when liking)
-            notificationService.createLikeNotification(post, currentUser);
-            
-            // Update like count
-            long likeCount = postLikeRepository.countByPost(post);
-            post.setLikeCount((int) likeCount);
+            notificationService.createLikeNotification(
+                    newsfeedRepo.getReferenceById(postId), currentUserProvider.getCurrentUser());
         }
-        
-        return newsfeedRepo.save(post);
+        return new LikeStatusDto(postId, liked, newsfeedRepo.findLikeCount(postId));
     }
     
     // Check if current user has liked a post
     public boolean hasUserLikedPost(int postId) {
         try {
-            User currentUser = userService.getCurrentUser();
+            User currentUser = currentUserProvider.getCurrentUser();
             return postLikeRepository.existsByUserIdAndPostNewsfeedId(currentUser.getId(), postId);
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Get like counts, comment counts and the viewer's like state for a batch of posts.
+     * Costs one aggregate query per counter (plus one for the viewer's likes) however many posts
+     * are asked for; unknown post IDs come back with zero counts.
+     *
+     * @param postIds posts to look up, answered in the same order without duplicates
+     * @throws IllegalArgumentException if more than MAX_ENGAGEMENT_BATCH posts are requested
+     */
+    @Transactional(readOnly = true)
+    public List<PostEngagementDto> getEngagement(List<Integer> postIds) {
+        Set<Integer> ids = new LinkedHashSet<>(postIds);
+        if (ids.size() > MAX_ENGAGEMENT_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_ENGAGEMENT_BATCH + " posts per request");
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Long> likeCounts = toCountMap(postLikeRepository.countByPostIds(ids));
+        Map<Integer, Long> commentCounts = toCountMap(commentRepository.countByPostIds(ids));
+        Long viewerId = currentUserProvider.findCurrentUserId();
+        Set<Integer> liked = viewerId == null
+                ? Set.of()
+                : new HashSet<>(postLikeRepository.findLikedPostIds(viewerId, ids));
+
+        List<PostEngagementDto> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            result.add(new PostEngagementDto(
+                    id, likeCounts.getOrDefault(id, 0L), commentCounts.getOrDefault(id, 0L), liked.contains(id)));
+        }
+        return result;
+    }
+
+    private static Map<Integer, Long> toCountMap(List<Object[]> rows) {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
     // Delete post with owner check
+    @Transactional
     public String deleteNewsfeed(int id) {
         // Get the existing post
         NewsfeedEntity existingNewsfeed = getNewsfeedById(id);
         
         // Get current authenticated user
-        User currentUser = userService.getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         // Check if the current user owns this post
         if (!existingNewsfeed.getUser().getId().equals(currentUser.getId())) {
             throw new AccessDeniedException("You don't have permission to delete this post");
         }
         
-        // Delete the post
+        // Delete the post and its home timeline entries
+        feedEntryRepository.deleteByNewsfeedId(id);
         newsfeedRepo.deleteById(id);
+        newsfeedVersionProvider.markChanged();
         return "Newsfeed with ID: " + id + " successfully deleted";
     }
     
@@ -168,7 +306,7 @@ public class NewsfeedService {
     public boolean canEditPost(int postId) {
         try {
             NewsfeedEntity post = getNewsfeedById(postId);
-            User currentUser = userService.getCurrentUser();
+            User currentUser = currentUserProvider.getCurrentUser();
             return post.getUser().getId().equals(currentUser.getId());
         } catch (Exception e) {
             return false;
@@ -180,7 +318,7 @@ public class NewsfeedService {
         Map<String, Object> result = new HashMap<>();
         try {
             NewsfeedEntity post = getNewsfeedById(postId);
-            User currentUser = userService.getCurrentUser();
+            User currentUser = currentUserProvider.getCurrentUser();
             
             boolean userLiked = postLikeRepository.existsByUserAndPost(currentUser, post);
             long likeCount = postLikeRepository.countByPost(post);
@@ -220,8 +358,12 @@ public class NewsfeedService {
             // Then delete all comments for this post
             commentRepository.deleteByPostNewsfeedId(id);
             
+            // Remove it from home timelines
+            feedEntryRepository.deleteByNewsfeedId(id);
+            
             // Finally delete the post
             newsfeedRepo.deleteById(id);
+            newsfeedVersionProvider.markChanged();
             
             return true;
         } catch (Exception e) {
@@ -231,15 +373,8 @@ public class NewsfeedService {
         }
     }
 
-    // Get the currently authenticated user
+    // Get the currently authenticated user (memoized for the request)
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("No authenticated user found");
-        }
-        
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        return currentUserProvider.getCurrentUser();
     }
 }
\ No newline at end of file
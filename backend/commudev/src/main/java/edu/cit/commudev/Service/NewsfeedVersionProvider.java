@@ -0,0 +1,87 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.config.ResourceVersionProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Version of the full newsfeed: a counter row in resource_versions.
+ * Every write that changes what the feed shows (posts, likes, comments, author names and
+ * pictures) calls markChanged(), so reading the version is a single primary key lookup.
+ */
+@Component
+public class NewsfeedVersionProvider implements ResourceVersionProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsfeedVersionProvider.class);
+
+    private static final String RESOURCE = "newsfeed";
+
+    private static final String SELECT_VERSION = "SELECT version FROM resource_versions WHERE name = ?";
+    private static final String INCREMENT_VERSION =
+            "UPDATE resource_versions SET version = version + 1 WHERE name = ?";
+    private static final String INSERT_VERSION = "INSERT INTO resource_versions (name, version) VALUES (?, 1)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate bumpTransaction;
+
+    public NewsfeedVersionProvider(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Bumps run after the writer committed, in a short transaction of their own
+        this.bumpTransaction = new TransactionTemplate(transactionManager);
+        this.bumpTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String getVersion(HttpServletRequest request, Authentication authentication) {
+        List<Long> rows = jdbcTemplate.queryForList(SELECT_VERSION, Long.class, RESOURCE);
+        return rows.isEmpty() ? "0" : String.valueOf(rows.get(0));
+    }
+
+    /**
+     * Record that the feed changed.
+     * Inside a transaction the bump waits until it commits, so pollers never cache a version
+     * taken before the change is visible, and the counter row is locked only briefly.
+     */
+    public void markChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump();
+                }
+            });
+        } else {
+            bump();
+        }
+    }
+
+    private void bump() {
+        try {
+            try {
+                bumpTransaction.executeWithoutResult(status -> {
+                    if (jdbcTemplate.update(INCREMENT_VERSION, RESOURCE) == 0) {
+                        jdbcTemplate.update(INSERT_VERSION, RESOURCE);
+                    }
+                });
+            } catch (DuplicateKeyException e) {
+                // Another writer created the row first
+                bumpTransaction.executeWithoutResult(status -> jdbcTemplate.update(INCREMENT_VERSION, RESOURCE));
+            }
+        } catch (RuntimeException e) {
+            // The write itself already committed; at worst pollers see the change on a later bump
+            logger.warn("Could not bump the newsfeed version", e);
+        }
+    }
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package edu.cit.commudev.service;
 
+import edu.cit.commudev.config.AuthenticatedUser;
+import edu.cit.commudev.config.CurrentUserProvider;
 import edu.cit.commudev.dto.UserProfileUpdateDto;
+import edu.cit.commudev.dto.UserStatusEventDto;
 import edu.cit.commudev.entity.Country;
 import edu.cit.commudev.entity.EmploymentStatus;
 import edu.cit.commudev.entity.ProfileVisibility;
@@ -9,9 +12,8 @@ import edu.cit.commudev.entity.User;
 import edu.cit.commudev.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -37,11 +39,25 @@ import edu.cit.commudev.repository.RoleRepository;
 public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CurrentUserProvider currentUserProvider;
+    private final NewsfeedVersionProvider newsfeedVersionProvider;
+    private final DisabledUserRegistry disabledUserRegistry;
 
     @Autowired
-    public UserService(UserRepository userRepository, RoleRepository roleRepository) {
+    public UserService(
+            UserRepository userRepository,
+            RoleRepository roleRepository,
+            ApplicationEventPublisher eventPublisher,
+            CurrentUserProvider currentUserProvider,
+            NewsfeedVersionProvider newsfeedVersionProvider,
+            DisabledUserRegistry disabledUserRegistry) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.eventPublisher = eventPublisher;
+        this.currentUserProvider = currentUserProvider;
+        this.newsfeedVersionProvider = newsfeedVersionProvider;
+        this.disabledUserRegistry = disabledUserRegistry;
     }
 
     /**
@@ -49,15 +65,13 @@ public class UserService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Try to find user by email first
-        Optional<User> userByEmail = userRepository.findByEmail(username);
-        if (userByEmail.isPresent()) {
-            return userByEmail.get();
+        // Single lookup by email or username
+        AuthenticatedUser user = AuthenticatedUser.fromCredentials(
+                username, userRepository.findCredentialsByIdentifier(username));
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
         }
-
-        // If not found by email, try by username
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return user;
     }
 
     /**
@@ -105,26 +119,8 @@ public class UserService implements UserDetailsService {
      * @return the authenticated user
      */
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("No authenticated user found");
-        }
-
-        String username = authentication.getName();
-
-        // Try to find by username first (since we're using username for auth)
-        Optional<User> userByUsername = findByUsername(username);
-        if (userByUsername.isPresent()) {
-            return userByUsername.get();
-        }
-
-        // If not found by username, try by email
-        Optional<User> userByEmail = findByEmail(username);
-        if (userByEmail.isPresent()) {
-            return userByEmail.get();
-        }
-
-        throw new EntityNotFoundException("Authenticated user not found in database");
+        // Resolved once per request and shared with the other services
+        return currentUserProvider.getCurrentUser();
     }
 
     /**
@@ -140,7 +136,20 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
 
         user.setEnabled(enabled);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+
+        // Drops the user's cached tokens and, when disabling, refuses them from now on
+        eventPublisher.publishEvent(new UserStatusEventDto(userId, enabled));
+        return saved;
+    }
+
+    /**
+     * Reload the disabled accounts from the database. Runs at startup and then periodically,
+     * so accounts disabled before a restart or on another instance are refused here too.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.disabled-users-refresh-ms:30000}")
+    public void reloadDisabledUsers() {
+        disabledUserRegistry.reload(userRepository::findDisabledUserIds);
     }
 
     /**
@@ -244,7 +253,10 @@ public class UserService implements UserDetailsService {
             }
         }
         
-        return userRepository.save(currentUser);
+        // Author names are shown on feed posts
+        User saved = userRepository.save(currentUser);
+        newsfeedVersionProvider.markChanged();
+        return saved;
     }
 
     /**
@@ -312,7 +324,9 @@ public class UserService implements UserDetailsService {
 
         Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
         System.out.println("File saved to: " + filePath.toAbsolutePath());
-        return userRepository.save(currentUser);
+        User saved = userRepository.save(currentUser);
+        newsfeedVersionProvider.markChanged();
+        return saved;
     }
 
 
@@ -1,7 +1,7 @@
 package edu.cit.commudev.config;
 
-import edu.cit.commudev.entity.User;
 import edu.cit.commudev.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -9,12 +9,11 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
-import java.util.Optional;
-
 @Configuration
 public class ApplicationConfiguration {
     private final UserRepository userRepository;
@@ -26,27 +25,35 @@ public class ApplicationConfiguration {
     @Bean
     @Primary 
     UserDetailsService userDetailsService() {
+        // One query by email or username, loading only what the password check needs
         return username -> {
-            // Try to find by email first
-            Optional<User> userByEmail = userRepository.findByEmail(username);
-            if (userByEmail.isPresent()) {
-                return userByEmail.get();
-            }
-
-            // If not found by email, try by username
-            Optional<User> userByUsername = userRepository.findByUsername(username);
-            if (userByUsername.isPresent()) {
-                return userByUsername.get();
+            AuthenticatedUser user = AuthenticatedUser.fromCredentials(
+                    username, userRepository.findCredentialsByIdentifier(username));
+            if (user == null) {
+                throw new UsernameNotFoundException("User not found with email or username: " + username);
             }
-
-            // If neither is found, throw the exception
-            throw new UsernameNotFoundException("User not found with email or username: " + username);
+            return user;
         };
     }
 
+    // Hashes with a lower cost are upgraded on the user's next successful login
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
+    }
+
+    /**
+     * Stores a re-encoded password after login when the stored hash is weaker than the configured cost.
+     */
+    @Bean
+    UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            userRepository.updatePassword(AuthenticatedUser.idOf(userDetails), newPassword);
+            return userDetails;
+        };
     }
 
     @Bean
@@ -60,6 +67,7 @@ public class ApplicationConfiguration {
 
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
 
         return authProvider;
     }
@@ -0,0 +1,173 @@
+package edu.cit.commudev.config;
+
+import edu.cit.commudev.dto.UserCredentialsDto;
+import edu.cit.commudev.entity.User;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight principal built from verified JWT claims.
+ * Carries only what authorization needs (ID, username, roles), so authenticating a request
+ * does not require loading the User entity.
+ */
+public class AuthenticatedUser implements UserDetails {
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String EMAIL_CLAIM = "email";
+    public static final String ROLES_CLAIM = "roles";
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+    // jti of the token this principal came from (null for loaded users and legacy tokens)
+    private final String tokenId;
+    // Only set when loaded from credentials for a password check
+    private final String password;
+    private final boolean enabled;
+
+    public AuthenticatedUser(Long id, String username, String email, List<GrantedAuthority> authorities,
+                             String tokenId) {
+        this(id, username, email, authorities, tokenId, null, true);
+    }
+
+    private AuthenticatedUser(Long id, String username, String email, List<GrantedAuthority> authorities,
+                              String tokenId, String password, boolean enabled) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.authorities = authorities;
+        this.tokenId = tokenId;
+        this.password = password;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Build a principal from token claims.
+     *
+     * @param claims verified claims
+     * @return the principal, or null if the token predates the userId/roles claims
+     */
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        Object userId = claims.get(USER_ID_CLAIM);
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(userId instanceof Number) || !(roles instanceof Collection<?> roleNames)) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(roleNames.size());
+        for (Object role : roleNames) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+
+        return new AuthenticatedUser(((Number) userId).longValue(), claims.getSubject(),
+                claims.get(EMAIL_CLAIM, String.class), authorities, claims.getId());
+    }
+
+    /**
+     * Build a principal from the credential rows of a lookup by email or username.
+     * If the identifier matches one user's email and another's username, the email match wins.
+     *
+     * @param identifier the email or username that was looked up
+     * @param rows one row per role, as returned by UserRepository.findCredentialsByIdentifier
+     * @return the principal, or null if nothing matched
+     */
+    public static AuthenticatedUser fromCredentials(String identifier, List<UserCredentialsDto> rows) {
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        UserCredentialsDto match = rows.get(0);
+        for (UserCredentialsDto row : rows) {
+            if (row.getEmail().equals(identifier)) {
+                match = row;
+                break;
+            }
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (UserCredentialsDto row : rows) {
+            if (row.getId().equals(match.getId()) && row.getRoleName() != null) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + row.getRoleName()));
+            }
+        }
+
+        return new AuthenticatedUser(match.getId(), match.getUsername(), match.getEmail(), authorities,
+                null, match.getPassword(), match.isEnabled());
+    }
+
+    /**
+     * Build a principal from a loaded user
+     */
+    public static AuthenticatedUser fromUser(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getEmail(),
+                new ArrayList<>(user.getAuthorities()), null);
+    }
+
+    /**
+     * Get the user ID of an authenticated caller, whichever principal type it uses
+     *
+     * @return the user ID, or null if the caller is not an application user
+     */
+    public static Long userIdOf(Authentication authentication) {
+        return authentication != null ? idOf(authentication.getPrincipal()) : null;
+    }
+
+    /**
+     * Get the user ID carried by a principal object
+     *
+     * @return the user ID, or null if the principal is not an application user
+     */
+    public static Long idOf(Object principal) {
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.getId();
+        }
+        if (principal instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", username='" + username + "'}";
+    }
+}
\ No newline at end of file
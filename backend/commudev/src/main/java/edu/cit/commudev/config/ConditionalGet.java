@@ -0,0 +1,23 @@
+package edu.cit.commudev.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler as supporting conditional requests.
+ * The ETag is derived from the given provider's version before the handler runs,
+ * so an unchanged resource is answered with 304 without loading or serializing anything.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+
+    /**
+     * Bean type that computes the current version of the resource
+     */
+    Class<? extends ResourceVersionProvider> value();
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package edu.cit.commudev.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Answers If-None-Match requests for {@link ConditionalGet} handlers with 304
+ * when the resource version has not changed.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final ApplicationContext applicationContext;
+
+    public ConditionalGetInterceptor(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        ConditionalGet conditionalGet = handlerMethod.getMethodAnnotation(ConditionalGet.class);
+        if (conditionalGet == null) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return true;
+        }
+
+        ResourceVersionProvider provider = applicationContext.getBean(conditionalGet.value());
+        String version = provider.getVersion(request, authentication);
+        if (version == null) {
+            return true;
+        }
+
+        // Per-user responses: the caller is part of the tag and shared caches must not store them
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(
+                (authentication.getName() + "|" + request.getRequestURI() + "?" + request.getQueryString() + "|" + version)
+                        .getBytes(StandardCharsets.UTF_8)) + "\"";
+
+        // Sets the ETag header and, on a match, the 304 status
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
\ No newline at end of file
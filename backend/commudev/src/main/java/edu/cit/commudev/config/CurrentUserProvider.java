@@ -0,0 +1,106 @@
+package edu.cit.commudev.config;
+
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Single place to resolve the authenticated user.
+ * The user ID comes straight from the principal (JWT claims), and the User entity is loaded
+ * at most once per request and memoized in a request attribute, so every service (and
+ * {@code @AuthenticationPrincipal User} arguments) share the same instance.
+ * Outside a web request (scheduled or async work) the user is loaded on every call.
+ */
+@Component
+public class CurrentUserProvider {
+    private static final String CURRENT_USER_ATTRIBUTE = CurrentUserProvider.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+
+    public CurrentUserProvider(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Get the ID of the authenticated user without touching the database when the principal carries it
+     *
+     * @throws AccessDeniedException if nobody is authenticated
+     */
+    public Long getCurrentUserId() {
+        Authentication authentication = requireAuthentication();
+        Long userId = AuthenticatedUser.userIdOf(authentication);
+        return userId != null ? userId : getCurrentUser().getId();
+    }
+
+    /**
+     * Get the ID of the authenticated user, or null for anonymous callers (public read endpoints)
+     */
+    public Long findCurrentUserId() {
+        if (!isAuthenticated(SecurityContextHolder.getContext().getAuthentication())) {
+            return null;
+        }
+        return getCurrentUserId();
+    }
+
+    /**
+     * Get the authenticated user entity
+     *
+     * @throws AccessDeniedException if nobody is authenticated
+     * @throws EntityNotFoundException if the principal no longer matches a user
+     */
+    public User getCurrentUser() {
+        Authentication authentication = requireAuthentication();
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object cached = attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof User user) {
+                return user;
+            }
+        }
+
+        User user = load(authentication);
+        if (attributes != null) {
+            attributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    private User load(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user) {
+            return user;
+        }
+
+        Long userId = AuthenticatedUser.idOf(principal);
+        if (userId != null) {
+            return userRepository.findById(userId)
+                    .orElseThrow(() -> new EntityNotFoundException("Authenticated user not found in database"));
+        }
+
+        String username = authentication.getName();
+        return userRepository.findByIdentifier(username)
+                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+    }
+
+    private Authentication requireAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!isAuthenticated(authentication)) {
+            throw new AccessDeniedException("No authenticated user found");
+        }
+        return authentication;
+    }
+
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null
+                && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
\ No newline at end of file
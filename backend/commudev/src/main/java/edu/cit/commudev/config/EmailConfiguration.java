@@ -11,25 +11,48 @@ import java.util.Properties;
 @Configuration
 public class EmailConfiguration {
 
+    // Host and port are configurable so tests can point at a local fake SMTP server
+    @Value("${spring.mail.host:smtp.gmail.com}")
+    private String emailHost;
+
+    @Value("${spring.mail.port:587}")
+    private int emailPort;
+
     @Value("${spring.mail.username}")
     private String emailUsername;
 
     @Value("${spring.mail.password}")
     private String emailPassword;
 
+    @Value("${spring.mail.properties.mail.smtp.auth:true}")
+    private boolean smtpAuth;
+
+    @Value("${spring.mail.properties.mail.smtp.starttls.enable:true}")
+    private boolean startTls;
+
+    @Value("${app.mail.timeout-ms:10000}")
+    private int timeoutMillis;
+
+    @Value("${app.mail.debug:false}")
+    private boolean debug;
+
     @Bean
     public JavaMailSender javaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
+        mailSender.setHost(emailHost);
+        mailSender.setPort(emailPort);
         mailSender.setUsername(emailUsername);
         mailSender.setPassword(emailPassword);
 
         Properties props = mailSender.getJavaMailProperties();
         props.put("mail.transport.protocol", "smtp");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.debug", "true");
+        props.put("mail.smtp.auth", String.valueOf(smtpAuth));
+        props.put("mail.smtp.starttls.enable", String.valueOf(startTls));
+        // Bound every SMTP call so a slow server cannot pin an outbox worker
+        props.put("mail.smtp.connectiontimeout", String.valueOf(timeoutMillis));
+        props.put("mail.smtp.timeout", String.valueOf(timeoutMillis));
+        props.put("mail.smtp.writetimeout", String.valueOf(timeoutMillis));
+        props.put("mail.debug", String.valueOf(debug));
 
         return mailSender;
     }
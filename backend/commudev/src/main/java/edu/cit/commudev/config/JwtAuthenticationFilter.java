@@ -1,7 +1,6 @@
 package edu.cit.commudev.config;
 
-import edu.cit.commudev.repository.UserRepository;
-import edu.cit.commudev.service.JwtService;
+import edu.cit.commudev.utils.SecurityLogger;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -11,10 +10,11 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -23,25 +23,21 @@ import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.beans.factory.annotation.Qualifier;
 
 import java.io.IOException;
-import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
-    private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
-    private final UserRepository userRepository;
+    private final TokenAuthenticator tokenAuthenticator;
+    private final SecurityLogger securityLogger;
 
     public JwtAuthenticationFilter(
-            JwtService jwtService,
-            UserDetailsService userDetailsService,
-            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
-            UserRepository userRepository
+            TokenAuthenticator tokenAuthenticator,
+            SecurityLogger securityLogger,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver
     ) {
-        this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.tokenAuthenticator = tokenAuthenticator;
+        this.securityLogger = securityLogger;
         this.handlerExceptionResolver = handlerExceptionResolver;
-        this.userRepository = userRepository;
     }
 
     @Override
@@ -51,51 +47,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        System.out.println("Request URI: " + request.getRequestURI());
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("Authorization header is missing or doesn't start with Bearer.");
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
             final String jwt = authHeader.substring(7); // Extract token
-            System.out.println("Processing JWT Token");
-
-            // This will throw an exception if the token is invalid
-            final String identifier = jwtService.extractUsername(jwt);
-            System.out.println("Extracted identifier from Token: " + identifier);
-
-            if (identifier != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = null;
 
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
                 try {
-                    // Try to find user by email or username using the enhanced UserDetailsService
-                    userDetails = userDetailsService.loadUserByUsername(identifier);
-                    System.out.println("User details loaded successfully: " + userDetails.getUsername());
+                    // Verifies the token; builds the principal from claims when possible
+                    UserDetails userDetails = tokenAuthenticator.authenticate(jwt);
 
-                    boolean isValidToken = jwtService.isTokenValid(jwt, userDetails);
-                    System.out.println("Token validity: " + isValidToken);
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
 
-                    if (isValidToken) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                        System.out.println("User authentication set: " + authToken.getPrincipal());
-                    } else {
-                        System.out.println("Invalid token for user: " + identifier);
-                        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                        response.getWriter().write("Invalid token");
-                        return;
-                    }
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    securityLogger.logTokenAccepted(userDetails.getUsername());
+                } catch (BadCredentialsException e) {
+                    securityLogger.logTokenRejected("Invalid token");
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("Invalid token");
+                    return;
+                } catch (DisabledException e) {
+                    securityLogger.logTokenRejected("Account disabled");
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                    response.getWriter().write("Account disabled");
+                    return;
                 } catch (UsernameNotFoundException e) {
-                    System.out.println("User not found: " + identifier);
+                    securityLogger.logTokenRejected("User not found");
                     response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                     response.getWriter().write("User not found");
                     return;
@@ -104,33 +90,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             filterChain.doFilter(request, response);
         } catch (ExpiredJwtException e) {
-            System.out.println("JWT Token has expired");
+            securityLogger.logTokenRejected("JWT Token has expired");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("JWT Token has expired");
             return;
         } catch (SignatureException e) {
-            System.out.println("Invalid JWT signature");
+            securityLogger.logTokenRejected("Invalid JWT signature");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Invalid JWT signature");
             return;
         } catch (MalformedJwtException e) {
-            System.out.println("Invalid JWT token");
+            securityLogger.logTokenRejected("Invalid JWT token");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Invalid JWT token");
             return;
         } catch (UnsupportedJwtException e) {
-            System.out.println("Unsupported JWT token");
+            securityLogger.logTokenRejected("Unsupported JWT token");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Unsupported JWT token");
             return;
         } catch (IllegalArgumentException e) {
-            System.out.println("JWT claims string is empty");
+            securityLogger.logTokenRejected("JWT claims string is empty");
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("JWT claims string is empty");
             return;
         } catch (Exception exception) {
-            System.out.println("Exception occurred in JWT filter: " + exception.getMessage());
-            exception.printStackTrace();
+            securityLogger.logAuthenticationError(exception);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Authentication error: " + exception.getMessage());
             return;
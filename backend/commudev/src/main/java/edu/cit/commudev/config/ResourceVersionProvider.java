@@ -0,0 +1,19 @@
+package edu.cit.commudev.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Computes a cheap version string for a resource served by a {@link ConditionalGet} handler.
+ * Implementations should use aggregates such as counts, max IDs or last-updated timestamps
+ * rather than loading the resource itself.
+ */
+public interface ResourceVersionProvider {
+
+    /**
+     * @param request the current request
+     * @param authentication the authenticated caller
+     * @return a version that changes whenever the response would change, or null to skip the check
+     */
+    String getVersion(HttpServletRequest request, Authentication authentication);
+}
\ No newline at end of file
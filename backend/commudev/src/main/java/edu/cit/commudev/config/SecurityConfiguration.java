@@ -1,8 +1,8 @@
 package edu.cit.commudev.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -28,19 +28,23 @@ import java.util.List;
 public class SecurityConfiguration {
     private final AuthenticationProvider authenticationProvider;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final SecurityRouteTable securityRouteTable;
 
     /**
      * Constructor for SecurityConfiguration.
      *
      * @param jwtAuthenticationFilter JWT filter for authentication
      * @param authenticationProvider provider for authentication
+     * @param securityRouteTable route policy for HTTP requests
      */
     public SecurityConfiguration(
             JwtAuthenticationFilter jwtAuthenticationFilter,
-            AuthenticationProvider authenticationProvider
+            AuthenticationProvider authenticationProvider,
+            SecurityRouteTable securityRouteTable
     ) {
         this.authenticationProvider = authenticationProvider;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.securityRouteTable = securityRouteTable;
     }
 
     /**
@@ -56,64 +60,10 @@ public class SecurityConfiguration {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(authorize -> authorize
-        // Public endpoints
-        .requestMatchers("/auth/**", "/public/**", "/error").permitAll()
-        .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
-        
-        // Add these lines for public image access
-        .requestMatchers("/profile-pictures/**", "/cover-photos/**").permitAll()
-        .requestMatchers("/profile-pictures/**", "/cover-photos/**", "/messages/**").permitAll()
-        // Public newsfeed endpoints
-        .requestMatchers(HttpMethod.GET, "/api/newsfeed/all", "/api/newsfeed/{id}").permitAll()
-        .requestMatchers(HttpMethod.GET, "/api/newsfeed/user/**").permitAll()
-        
-        // Public comment endpoints
-        .requestMatchers(HttpMethod.GET, "/api/comments/post/**", "/api/comments/count/**").permitAll()
-        
-        // Public ResourceHub endpoints
-        .requestMatchers(HttpMethod.GET, "/api/resourcehub/all", "/api/resourcehub/{id}").permitAll()
-        .requestMatchers(HttpMethod.GET, "/api/resourcehub/category/**").permitAll()
-        .requestMatchers(HttpMethod.GET, "/api/resourcehub/search").permitAll()
-        
-        // Add this line for public profile access
-        .requestMatchers("/users/profiles/**").permitAll()
-        
-        // Public user list
-        .requestMatchers("/users/all").permitAll()
-
-        
-                        // Admin endpoints
-                        .requestMatchers("/admin/**").hasRole("ADMIN")
-
-                        // User management endpoints
-                        .requestMatchers("/users/").hasAnyRole("ADMIN", "MANAGER")
-
-                        // User profile endpoints - authenticated users can access their own profile
-                        .requestMatchers("/users/me/**").authenticated()
-                        
-                        // Authenticated newsfeed endpoints
-                        .requestMatchers("/api/newsfeed/create").authenticated()
-                        .requestMatchers("/api/newsfeed/my-posts").authenticated()
-                        .requestMatchers("/api/newsfeed/update/**").authenticated()
-                        .requestMatchers("/api/newsfeed/delete/**").authenticated()
-                        .requestMatchers("/api/newsfeed/like/**").authenticated()
-                        .requestMatchers("/api/newsfeed/can-edit/**").authenticated()
-                        
-                        // Authenticated comment endpoints
-                        .requestMatchers(HttpMethod.POST, "/api/comments").authenticated()
-                        .requestMatchers(HttpMethod.PUT, "/api/comments/**").authenticated()
-                        .requestMatchers(HttpMethod.DELETE, "/api/comments/**").authenticated()
-                        .requestMatchers("/api/comments/my-comments").authenticated()
-                        
-                        // Authenticated ResourceHub endpoints (write operations)
-                        .requestMatchers(HttpMethod.POST, "/api/resourcehub/create").authenticated()
-                        .requestMatchers(HttpMethod.PUT, "/api/resourcehub/update/**").authenticated()
-                        .requestMatchers(HttpMethod.DELETE, "/api/resourcehub/delete/**").authenticated()
-                        .requestMatchers(HttpMethod.PATCH, "/api/resourcehub/heart/**").authenticated()
-                        .requestMatchers("/api/resourcehub/creator/**").authenticated()
-
-                        // All other requests need authentication
-                        .anyRequest().authenticated()
+                        // Completion of long-poll requests; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Public / authenticated / admin routes, see SecurityRouteTable
+                        .anyRequest().access(securityRouteTable)
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
@@ -126,6 +76,7 @@ public class SecurityConfiguration {
 
     /**
      * Configures CORS for the application.
+     * This is the only CORS configuration; it runs once, in the security filter chain.
      *
      * @return configured CorsConfigurationSource
      */
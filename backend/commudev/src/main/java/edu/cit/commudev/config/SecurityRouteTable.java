@@ -0,0 +1,266 @@
+package edu.cit.commudev.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Declarative route policy for HTTP requests: which paths are public, which need a role,
+ * and (by default) everything else needs an authenticated user.
+ *
+ * The table is compiled once at startup into PathPatterns indexed by their leading literal
+ * segments and HTTP method. A request walks that index by its own leading segments and is
+ * only matched against the few rules that can apply to it, still in declaration order
+ * (first match wins). Decisions are also cached per method and path, since clients poll
+ * the same URLs over and over.
+ */
+@Component
+public class SecurityRouteTable implements AuthorizationManager<RequestAuthorizationContext> {
+
+    public enum Access {
+        PUBLIC,
+        AUTHENTICATED,
+        ADMIN,
+        STAFF
+    }
+
+    // Declaration order matters: the first matching rule decides
+    private static final List<Rule> RULES = List.of(
+            rule(null, Access.PUBLIC, "/auth/**", "/public/**", "/error"),
+            rule(HttpMethod.OPTIONS, Access.PUBLIC, "/**"),
+
+            // Uploaded images and the WebSocket handshake (STOMP CONNECT frames carry the JWT)
+            rule(null, Access.PUBLIC, "/profile-pictures/**", "/cover-photos/**", "/messages/**", "/ws/**"),
+
+            // Per-user timeline; must precede the public GET /api/newsfeed/{id}
+            rule(null, Access.AUTHENTICATED, "/api/newsfeed/home"),
+
+            // Public read-only content
+            rule(HttpMethod.GET, Access.PUBLIC,
+                    "/api/newsfeed/all", "/api/newsfeed/timeline", "/api/newsfeed/engagement",
+                    "/api/newsfeed/{id}", "/api/newsfeed/user/**",
+                    "/api/comments/post/**", "/api/comments/count/**",
+                    "/api/resourcehub/all", "/api/resourcehub/{id}",
+                    "/api/resourcehub/category/**", "/api/resourcehub/search"),
+            rule(null, Access.PUBLIC, "/users/profiles/**", "/users/all"),
+
+            rule(null, Access.ADMIN, "/admin/**"),
+            rule(null, Access.STAFF, "/users/")
+    );
+
+    private static final AuthorizationManager<RequestAuthorizationContext> AUTHENTICATED =
+            AuthenticatedAuthorizationManager.authenticated();
+    private static final AuthorizationManager<RequestAuthorizationContext> ADMIN =
+            AuthorityAuthorizationManager.hasRole("ADMIN");
+    private static final AuthorizationManager<RequestAuthorizationContext> STAFF =
+            AuthorityAuthorizationManager.hasAnyRole("ADMIN", "MANAGER");
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+    private static final List<String> METHODS = List.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
+    private static final int MAX_CACHED_PATHS = 4096;
+    private static final int MAX_CACHED_PATH_LENGTH = 256;
+
+    private final Node root = new Node();
+    // method -> (path -> access); the decision only depends on the two, so hot paths skip matching entirely
+    private final Map<String, Map<String, Access>> decisionCache = new HashMap<>();
+
+    public SecurityRouteTable() {
+        PathPatternParser parser = new PathPatternParser();
+        List<CompiledRoute> compiled = new ArrayList<>();
+        for (Rule rule : RULES) {
+            for (String pattern : rule.patterns) {
+                compiled.add(new CompiledRoute(rule.method, parser.parse(pattern), rule.access, literalPrefix(pattern)));
+            }
+        }
+
+        // One node per literal prefix; its candidates are the routes whose literal prefix leads to it
+        for (CompiledRoute route : compiled) {
+            Node node = root;
+            for (String segment : route.literalPrefix) {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        root.index(List.of(), compiled);
+
+        for (String method : METHODS) {
+            decisionCache.put(method, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return switch (accessFor(context.getRequest())) {
+            case PUBLIC -> GRANTED;
+            case ADMIN -> ADMIN.check(authentication, context);
+            case STAFF -> STAFF.check(authentication, context);
+            case AUTHENTICATED -> AUTHENTICATED.check(authentication, context);
+        };
+    }
+
+    /**
+     * Look up the access rule for a request
+     *
+     * @param request the HTTP request
+     * @return the access level of the first matching rule, or AUTHENTICATED if none matches
+     */
+    public Access accessFor(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        String rawPath = contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+        String method = request.getMethod();
+
+        Map<String, Access> cache = decisionCache.get(method);
+        if (cache == null) {
+            return resolve(method, rawPath);
+        }
+        Access access = cache.get(rawPath);
+        if (access == null) {
+            access = resolve(method, rawPath);
+            // Paths with IDs are unbounded, so the cache is simply reset when full
+            if (rawPath.length() <= MAX_CACHED_PATH_LENGTH) {
+                if (cache.size() >= MAX_CACHED_PATHS) {
+                    cache.clear();
+                }
+                cache.put(rawPath, access);
+            }
+        }
+        return access;
+    }
+
+    private Access resolve(String method, String rawPath) {
+        // Encoded or parameterized paths are decoded first so they cannot sidestep the index
+        boolean needsDecoding = rawPath.indexOf('%') >= 0 || rawPath.indexOf(';') >= 0;
+        PathContainer path = needsDecoding ? PathContainer.parsePath(rawPath) : null;
+        List<String> segments = needsDecoding ? decodedSegments(path) : rawSegments(rawPath);
+
+        Node node = root;
+        for (String segment : segments) {
+            Node child = node.children.get(segment);
+            if (child == null) {
+                break;
+            }
+            node = child;
+        }
+
+        List<CompiledRoute> candidates = node.routesByMethod.get(method);
+        if (candidates == null) {
+            candidates = node.routes;
+        }
+        for (CompiledRoute route : candidates) {
+            if (route.method == null || route.method.matches(method)) {
+                if (path == null) {
+                    path = PathContainer.parsePath(rawPath);
+                }
+                if (route.pattern.matches(path)) {
+                    return route.access;
+                }
+            }
+        }
+        return Access.AUTHENTICATED;
+    }
+
+    private static List<String> rawSegments(String path) {
+        return List.of(path.substring(path.startsWith("/") ? 1 : 0).split("/", -1));
+    }
+
+    private static List<String> decodedSegments(PathContainer path) {
+        List<String> segments = new ArrayList<>();
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment) {
+                segments.add(segment.valueToMatch());
+            }
+        }
+        if (path.value().endsWith("/")) {
+            segments.add("");
+        }
+        return segments;
+    }
+
+    // Leading segments of a pattern up to the first wildcard or variable
+    private static List<String> literalPrefix(String pattern) {
+        List<String> prefix = new ArrayList<>();
+        for (String segment : rawSegments(pattern)) {
+            if (segment.contains("*") || segment.contains("{") || segment.contains("?")) {
+                break;
+            }
+            prefix.add(segment);
+        }
+        return prefix;
+    }
+
+    private static Rule rule(HttpMethod method, Access access, String... patterns) {
+        return new Rule(method, access, patterns);
+    }
+
+    private static class Rule {
+        private final HttpMethod method;
+        private final Access access;
+        private final String[] patterns;
+
+        Rule(HttpMethod method, Access access, String[] patterns) {
+            this.method = method;
+            this.access = access;
+            this.patterns = patterns;
+        }
+    }
+
+    private static class CompiledRoute {
+        private final HttpMethod method;
+        private final PathPattern pattern;
+        private final Access access;
+        private final List<String> literalPrefix;
+
+        CompiledRoute(HttpMethod method, PathPattern pattern, Access access, List<String> literalPrefix) {
+            this.method = method;
+            this.pattern = pattern;
+            this.access = access;
+            this.literalPrefix = literalPrefix;
+        }
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        // Routes that can match a path whose walk stops here, in declaration order
+        private List<CompiledRoute> routes = List.of();
+        private final Map<String, List<CompiledRoute>> routesByMethod = new HashMap<>();
+
+        void index(List<String> prefix, List<CompiledRoute> compiled) {
+            List<CompiledRoute> candidates = new ArrayList<>();
+            for (CompiledRoute route : compiled) {
+                // A walk stops here only when the next segment has no child, so longer literal prefixes cannot match
+                if (route.literalPrefix.size() <= prefix.size()
+                        && route.literalPrefix.equals(prefix.subList(0, route.literalPrefix.size()))) {
+                    candidates.add(route);
+                }
+            }
+            routes = List.copyOf(candidates);
+            for (String method : METHODS) {
+                routesByMethod.put(method, candidates.stream()
+                        .filter(route -> route.method == null || route.method.matches(method))
+                        .toList());
+            }
+
+            children.forEach((segment, child) -> {
+                List<String> childPrefix = new ArrayList<>(prefix);
+                childPrefix.add(segment);
+                child.index(childPrefix, compiled);
+            });
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package edu.cit.commudev.config;
+
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.service.MessageService;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Authenticates STOMP sessions with the same JWT used for REST calls and
+ * only lets participants subscribe to a conversation's topic.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    private static final Pattern CONVERSATION_TOPIC = Pattern.compile("^/topic/conversations/(\\d+)(/.*)?$");
+
+    private final TokenAuthenticator tokenAuthenticator;
+    private final MessageService messageService;
+
+    public StompAuthChannelInterceptor(
+            TokenAuthenticator tokenAuthenticator,
+            MessageService messageService) {
+        this.tokenAuthenticator = tokenAuthenticator;
+        this.messageService = messageService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            checkSubscription(accessor.getUser(), accessor.getDestination());
+        }
+
+        return message;
+    }
+
+    /**
+     * Resolve the session principal from the Bearer token sent in the CONNECT frame
+     */
+    private StompPrincipal authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new AccessDeniedException("Missing Bearer token");
+        }
+
+        String jwt = authHeader.substring(7);
+        UserDetails userDetails;
+        try {
+            userDetails = tokenAuthenticator.authenticate(jwt);
+        } catch (RuntimeException e) {
+            throw new AccessDeniedException("Invalid token");
+        }
+
+        AuthenticatedUser user = userDetails instanceof User entity
+                ? AuthenticatedUser.fromUser(entity)
+                : (AuthenticatedUser) userDetails;
+        return new StompPrincipal(user.getId(), user.getUsername());
+    }
+
+    /**
+     * Only participants may subscribe to a conversation topic
+     */
+    private void checkSubscription(Principal principal, String destination) {
+        if (destination == null) {
+            return;
+        }
+
+        Matcher matcher = CONVERSATION_TOPIC.matcher(destination);
+        if (!matcher.matches()) {
+            return;
+        }
+
+        if (!(principal instanceof StompPrincipal)) {
+            throw new AccessDeniedException("Not authenticated");
+        }
+
+        Long conversationId = Long.valueOf(matcher.group(1));
+        Long userId = ((StompPrincipal) principal).getUserId();
+        if (!messageService.userHasAccessToConversation(userId, conversationId)) {
+            throw new AccessDeniedException("You don't have access to this conversation");
+        }
+    }
+}
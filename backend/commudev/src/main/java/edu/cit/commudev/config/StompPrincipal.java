@@ -0,0 +1,30 @@
+package edu.cit.commudev.config;
+
+import java.security.Principal;
+
+/**
+ * Principal attached to an authenticated STOMP session.
+ * The name is the user ID so that user destinations can be addressed by ID.
+ */
+public class StompPrincipal implements Principal {
+    private final Long userId;
+    private final String username;
+
+    public StompPrincipal(Long userId, String username) {
+        this.userId = userId;
+        this.username = username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
@@ -0,0 +1,138 @@
+package edu.cit.commudev.config;
+
+import edu.cit.commudev.dto.UserStatusEventDto;
+import edu.cit.commudev.service.DisabledUserRegistry;
+import edu.cit.commudev.service.JwtService;
+import edu.cit.commudev.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns a bearer token into a principal.
+ * Shared by the REST filter and the STOMP CONNECT interceptor.
+ * Verified tokens are remembered in a VerifiedTokenCache so repeated requests skip verification.
+ */
+@Component
+public class TokenAuthenticator {
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final TokenRevocationService revocationService;
+    private final DisabledUserRegistry disabledUsers;
+
+    // When enabled, tokens carrying userId and roles claims are trusted without a user lookup
+    @Value("${security.jwt.stateless-auth:true}")
+    private boolean statelessAuth;
+
+    public TokenAuthenticator(
+            JwtService jwtService,
+            UserDetailsService userDetailsService,
+            VerifiedTokenCache tokenCache,
+            TokenRevocationService revocationService,
+            DisabledUserRegistry disabledUsers) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.revocationService = revocationService;
+        this.disabledUsers = disabledUsers;
+    }
+
+    /**
+     * Verify a token and resolve its principal.
+     *
+     * @param jwt the compact token
+     * @return an AuthenticatedUser built from claims, or the loaded User for legacy tokens
+     * @throws io.jsonwebtoken.JwtException if the token is expired, malformed or badly signed
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if a legacy token's user is gone
+     * @throws BadCredentialsException if the token is revoked, is not an access token,
+     *         or does not belong to the loaded user
+     * @throws DisabledException if the user has been disabled
+     */
+    public UserDetails authenticate(String jwt) {
+        UserDetails cached = tokenCache.get(jwt);
+        if (cached != null) {
+            checkNotRevoked(((AuthenticatedUser) cached).getTokenId());
+            checkEnabled(cached);
+            return cached;
+        }
+
+        Claims claims = jwtService.verify(jwt);
+        // Refresh tokens are only accepted by /auth/refresh; legacy tokens carry no type
+        if (JwtService.REFRESH_TOKEN.equals(claims.get(JwtService.TOKEN_TYPE_CLAIM))) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        checkNotRevoked(claims.getId());
+
+        UserDetails principal = resolvePrincipal(claims);
+        checkEnabled(principal);
+
+        // Only claim-built principals are cached; loaded ones may carry a password hash
+        if (principal instanceof AuthenticatedUser authenticatedUser && authenticatedUser.getTokenId() != null) {
+            tokenCache.put(jwt, authenticatedUser.getId(), principal, claims.getExpiration().getTime());
+        }
+        return principal;
+    }
+
+    /**
+     * Revoke a token (access or refresh) until it expires and drop it from the cache.
+     * Tokens that are already invalid are ignored.
+     *
+     * @param jwt the compact token
+     */
+    public void revoke(String jwt) {
+        tokenCache.invalidate(jwt);
+        try {
+            Claims claims = jwtService.verify(jwt);
+            revocationService.revoke(claims.getId(), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expired or malformed: nothing left to revoke
+        }
+    }
+
+    /**
+     * Refuse a user's tokens while the account is disabled.
+     */
+    @EventListener
+    public void onUserStatusChanged(UserStatusEventDto event) {
+        disabledUsers.setDisabled(event.getUserId(), !event.isEnabled());
+        tokenCache.invalidateUser(event.getUserId());
+    }
+
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessAuth) {
+            AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims);
+            if (principal != null) {
+                return principal;
+            }
+        }
+
+        // Tokens issued before the roles claim existed (or stateless mode off): load the user
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!userDetails.getUsername().equals(claims.getSubject())) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        if (!userDetails.isEnabled()) {
+            throw new DisabledException("Account disabled");
+        }
+        return userDetails;
+    }
+
+    private void checkNotRevoked(String tokenId) {
+        if (revocationService.isRevoked(tokenId)) {
+            throw new BadCredentialsException("Invalid token");
+        }
+    }
+
+    private void checkEnabled(UserDetails principal) {
+        if (disabledUsers.isDisabled(AuthenticatedUser.idOf(principal))) {
+            throw new DisabledException("Account disabled");
+        }
+    }
+}
\ No newline at end of file
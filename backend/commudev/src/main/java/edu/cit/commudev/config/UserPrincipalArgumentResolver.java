@@ -0,0 +1,65 @@
+package edu.cit.commudev.config;
+
+import edu.cit.commudev.entity.User;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@code @AuthenticationPrincipal User} and {@code @AuthenticationPrincipal AuthenticatedUser}
+ * whichever principal the request was authenticated with.
+ * A full User is only loaded when a handler asks for one, through CurrentUserProvider.
+ */
+@Component
+public class UserPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+    private final CurrentUserProvider currentUserProvider;
+
+    public UserPrincipalArgumentResolver(CurrentUserProvider currentUserProvider) {
+        this.currentUserProvider = currentUserProvider;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(AuthenticationPrincipal.class)
+                && (type == User.class || type == AuthenticatedUser.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        Object principal = authentication.getPrincipal();
+
+        if (parameter.getParameterType() == AuthenticatedUser.class) {
+            if (principal instanceof AuthenticatedUser) {
+                return principal;
+            }
+            return principal instanceof User user ? AuthenticatedUser.fromUser(user) : null;
+        }
+
+        if (principal instanceof User) {
+            return principal;
+        }
+        if (!(principal instanceof AuthenticatedUser)) {
+            return null;
+        }
+
+        // Shares the per-request memo with services that call CurrentUserProvider
+        try {
+            return currentUserProvider.getCurrentUser();
+        } catch (EntityNotFoundException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
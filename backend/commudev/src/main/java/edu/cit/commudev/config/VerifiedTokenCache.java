@@ -0,0 +1,143 @@
+package edu.cit.commudev.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ * Clients poll with the same bearer token several times a second, so a hit skips the HMAC check
+ * and claim parsing. Entries are keyed by a SHA-256 of the token (the raw token is never kept)
+ * and expire together with the token.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, Entry> entriesByTokenHash = new ConcurrentHashMap<>();
+    // userId -> token hashes, so a disabled user's tokens can be dropped at once
+    private final Map<Long, Set<String>> tokenHashesByUser = new ConcurrentHashMap<>();
+
+    @Value("${security.jwt.token-cache-size:10000}")
+    private int maxEntries;
+
+    /**
+     * Get the principal of a previously verified token
+     *
+     * @return the principal, or null if the token is unknown or has expired
+     */
+    public UserDetails get(String token) {
+        String hash = hash(token);
+        Entry entry = entriesByTokenHash.get(hash);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            remove(hash, entry);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    /**
+     * Remember a verified token until its expiry
+     *
+     * @param token the compact token
+     * @param userId owner of the token (used for invalidation)
+     * @param principal principal resolved from the token
+     * @param expiresAt token expiry in epoch millis
+     */
+    public void put(String token, Long userId, UserDetails principal, long expiresAt) {
+        if (maxEntries <= 0 || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (entriesByTokenHash.size() >= maxEntries) {
+            evictExpired();
+            if (entriesByTokenHash.size() >= maxEntries) {
+                clear();
+            }
+        }
+
+        String hash = hash(token);
+        entriesByTokenHash.put(hash, new Entry(userId, principal, expiresAt));
+        tokenHashesByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(hash);
+    }
+
+    /**
+     * Drop a single token
+     */
+    public void invalidate(String token) {
+        String hash = hash(token);
+        Entry entry = entriesByTokenHash.get(hash);
+        if (entry != null) {
+            remove(hash, entry);
+        }
+    }
+
+    /**
+     * Drop every cached token of a user
+     */
+    public void invalidateUser(Long userId) {
+        Set<String> hashes = tokenHashesByUser.remove(userId);
+        if (hashes != null) {
+            hashes.forEach(entriesByTokenHash::remove);
+        }
+    }
+
+    /**
+     * Drop all cached tokens
+     */
+    public void clear() {
+        entriesByTokenHash.clear();
+        tokenHashesByUser.clear();
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        entriesByTokenHash.forEach((hash, entry) -> {
+            if (entry.expiresAt <= now) {
+                remove(hash, entry);
+            }
+        });
+    }
+
+    private void remove(String hash, Entry entry) {
+        if (entriesByTokenHash.remove(hash, entry)) {
+            Set<String> hashes = tokenHashesByUser.get(entry.userId);
+            if (hashes != null) {
+                hashes.remove(hash);
+                if (hashes.isEmpty()) {
+                    tokenHashesByUser.remove(entry.userId, hashes);
+                }
+            }
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class Entry {
+        private final Long userId;
+        private final UserDetails principal;
+        private final long expiresAt;
+
+        Entry(Long userId, UserDetails principal, long expiresAt) {
+            this.userId = userId;
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
\ No newline at end of file
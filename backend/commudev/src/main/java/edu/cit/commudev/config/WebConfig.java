@@ -1,17 +1,41 @@
 package edu.cit.commudev.config;
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.cors.CorsConfiguration;
-import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
-import org.springframework.web.filter.CorsFilter;
-import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
+@Order(Ordered.HIGHEST_PRECEDENCE) // so our principal resolver runs before Spring Security's
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+    private final UserPrincipalArgumentResolver userPrincipalArgumentResolver;
+
+    public WebConfig(
+            ConditionalGetInterceptor conditionalGetInterceptor,
+            UserPrincipalArgumentResolver userPrincipalArgumentResolver) {
+        this.conditionalGetInterceptor = conditionalGetInterceptor;
+        this.userPrincipalArgumentResolver = userPrincipalArgumentResolver;
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        // @AuthenticationPrincipal User / AuthenticatedUser for token-only principals
+        resolvers.add(userPrincipalArgumentResolver);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // ETag / 304 handling for handlers annotated with @ConditionalGet
+        registry.addInterceptor(conditionalGetInterceptor);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Register resource handler for profile pictures
@@ -26,29 +50,4 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/messages/**")
                 .addResourceLocations("file:uploads/messages/");
     }
-
-    @Override
-    public void addCorsMappings(CorsRegistry registry) {
-        registry.addMapping("/**")
-                .allowedOrigins("http://localhost:5173",
-                                            "http://localhost:3000",
-                                            "https://it-342-commu-dev-v675-git-master-nokitakis-projects.vercel.app",
-                                            "https://it-342-commu-dev-v675.vercel.app")
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                .allowedHeaders("*")
-                .allowCredentials(true)
-                .maxAge(3600);
-    }
-
-    @Bean
-    public CorsFilter corsFilter() {
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        CorsConfiguration config = new CorsConfiguration();
-        config.setAllowCredentials(true);
-        config.addAllowedOriginPattern("*");
-        config.addAllowedHeader("*");
-        config.addAllowedMethod("*");
-        source.registerCorsConfiguration("/**", config);
-        return new CorsFilter(source);
-    }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 package edu.cit.commudev.controller;
 
 import edu.cit.commudev.dto.LoginUserDto;
+import edu.cit.commudev.dto.RefreshTokenDto;
 import edu.cit.commudev.dto.RegisterUserDto;
 import edu.cit.commudev.dto.VerifyUserDto;
 import edu.cit.commudev.entity.User;
+import edu.cit.commudev.exception.LoginThrottledException;
 import edu.cit.commudev.service.AuthenticationService;
 import edu.cit.commudev.service.JwtService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,6 +46,10 @@ public class AuthenticationController {
             response.put("username", registeredUser.getUsername());
 
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Registration is temporarily unavailable, please retry"));
         } catch (Exception e) {
             // Log the full exception for debugging
             logger.log(Level.SEVERE, "Error during signup process", e);
@@ -62,13 +71,16 @@ public class AuthenticationController {
             }
     
             User authenticatedUser = authenticationService.authenticate(loginUserDto);
-            String jwtToken = jwtService.generateToken(authenticatedUser);
-    
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", jwtToken);
-            response.put("expiresIn", jwtService.getExpirationTime());
-    
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(tokenResponse(authenticatedUser));
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            // Password hashing pool is saturated: shed load instead of queueing
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Login is temporarily unavailable, please retry"));
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error during login process", e);
     
@@ -78,6 +90,21 @@ public class AuthenticationController {
         }
     }
 
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token.
+     * The presented refresh token is revoked, so each one works once.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenDto refreshTokenDto) {
+        try {
+            User user = authenticationService.authenticateRefreshToken(refreshTokenDto.getRefreshToken());
+            return ResponseEntity.ok(tokenResponse(user));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Refresh failed: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/verify")
     public ResponseEntity<?> verifyUser(@RequestBody VerifyUserDto verifyUserDto) {
         try {
@@ -105,4 +132,13 @@ public class AuthenticationController {
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
+
+    private Map<String, Object> tokenResponse(User user) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", jwtService.generateToken(user));
+        response.put("expiresIn", jwtService.getExpirationTime());
+        response.put("refreshToken", jwtService.generateRefreshToken(user));
+        response.put("refreshExpiresIn", jwtService.getRefreshExpirationTime());
+        return response;
+    }
 }
\ No newline at end of file
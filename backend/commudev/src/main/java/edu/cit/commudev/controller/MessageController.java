@@ -1,10 +1,19 @@
 package edu.cit.commudev.controller;
 
+import edu.cit.commudev.config.AuthenticatedUser;
+import edu.cit.commudev.config.ConditionalGet;
 import edu.cit.commudev.dto.ConversationDto;
 import edu.cit.commudev.dto.MessageDto;
+import edu.cit.commudev.dto.MessagePageDto;
 import edu.cit.commudev.entity.User;
+import edu.cit.commudev.service.InboxVersionProvider;
+import edu.cit.commudev.service.MessageSendPipeline;
 import edu.cit.commudev.service.MessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -16,36 +25,54 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.nio.file.Path;
 import org.springframework.util.StringUtils;
 
 @RestController
 @RequestMapping("/api/messages")
-@CrossOrigin(origins = {"http://localhost:5173", "https://it-342-commu-dev-v675-git-master-nokitakis-projects.vercel.app", "https://it-342-commu-dev-v675.vercel.app"})
 public class MessageController {
+    private static final Logger logger = LoggerFactory.getLogger(MessageController.class);
 
     private final MessageService messageService;
+    private final MessageSendPipeline messageSendPipeline;
+
+    @Value("${app.messaging.send-pipeline.enabled:true}")
+    private boolean sendPipelineEnabled;
 
     @Autowired
-    public MessageController(MessageService messageService) {
+    public MessageController(MessageService messageService, MessageSendPipeline messageSendPipeline) {
         this.messageService = messageService;
+        this.messageSendPipeline = messageSendPipeline;
     }
 
     /**
      * Get all conversations for the current user
      */
     @GetMapping("/conversations")
-    public ResponseEntity<List<ConversationDto>> getUserConversations(@AuthenticationPrincipal User user) {
+    @ConditionalGet(InboxVersionProvider.class)
+    public ResponseEntity<List<ConversationDto>> getUserConversations(@AuthenticationPrincipal AuthenticatedUser user) {
         List<ConversationDto> conversations = messageService.getUserConversations(user.getId());
         return ResponseEntity.ok(conversations);
     }
 
+    /**
+     * Get the total number of unread messages for the current user
+     */
+    @GetMapping("/unread/count")
+    public ResponseEntity<Map<String, Long>> getUnreadMessageCount(@AuthenticationPrincipal AuthenticatedUser user) {
+        long count = messageService.getUnreadMessageCount(user.getId());
+        return ResponseEntity.ok(Map.of("count", count));
+    }
+
     /**
      * Get or create a conversation with another user
      */
     @PostMapping("/conversations")
     public ResponseEntity<ConversationDto> getOrCreateConversation(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestBody Map<String, Long> request) {
         
         Long otherUserId = request.get("userId");
@@ -54,45 +81,87 @@ public class MessageController {
     }
 
     /**
-     * Get messages for a specific conversation
+     * Get messages for a specific conversation.
+     * Returns the complete history, as the web client expects, or only messages newer than
+     * "after" (at most "size") when given. Clients that page through history use /messages.
      */
     @GetMapping("/conversations/{conversationId}")
     public ResponseEntity<List<MessageDto>> getConversationMessages(
-            @AuthenticationPrincipal User user,
-            @PathVariable Long conversationId) {
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + MessageService.DEFAULT_PAGE_SIZE) int size) {
         
         // Check if user has access to this conversation
         if (!messageService.userHasAccessToConversation(user.getId(), conversationId)) {
             return ResponseEntity.status(403).build();
         }
         
-        List<MessageDto> messages = messageService.getConversationMessages(conversationId);
+        List<MessageDto> messages = after == null
+                ? messageService.getConversationMessages(conversationId)
+                : messageService.getMessagePage(conversationId, null, after, size).getMessages();
         
-        // Mark messages as read
-        messageService.markMessagesAsRead(conversationId, user.getId());
+        // Mark what was just delivered as read
+        if (!messages.isEmpty()) {
+            messageService.markMessagesAsRead(conversationId, user.getId(), messages.get(messages.size() - 1).getId());
+        }
         
         return ResponseEntity.ok(messages);
     }
 
     /**
-     * Send a message in a conversation
+     * Get a page of conversation history using message ID cursors
+     */
+    @GetMapping("/conversations/{conversationId}/messages")
+    public ResponseEntity<MessagePageDto> getMessagePage(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + MessageService.DEFAULT_PAGE_SIZE) int size) {
+        
+        // Check if user has access to this conversation
+        if (!messageService.userHasAccessToConversation(user.getId(), conversationId)) {
+            return ResponseEntity.status(403).build();
+        }
+        
+        MessagePageDto page = messageService.getMessagePage(conversationId, before, after, size);
+        
+        // Only the newest page moves the read position forward
+        if (before == null) {
+            messageService.markMessagesAsRead(conversationId, user.getId(), page.getNewestId());
+        }
+        
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Send a message in a conversation.
+     * The response is the acknowledgement: it is only sent once the message has been stored.
+     * A 503 means the send queue was full or shutting down and the message should be retried;
+     * a 400 means the message was refused by the database (e.g. the conversation is gone).
      */
     @PostMapping("/conversations/{conversationId}")
-    public ResponseEntity<MessageDto> sendMessage(
+    public CompletableFuture<ResponseEntity<MessageDto>> sendMessage(
             @AuthenticationPrincipal User user,
             @PathVariable Long conversationId,
             @RequestBody MessageDto messageDto) {
         
         // Check if user has access to this conversation
         if (!messageService.userHasAccessToConversation(user.getId(), conversationId)) {
-            return ResponseEntity.status(403).build();
+            return CompletableFuture.completedFuture(ResponseEntity.status(403).build());
         }
         
-        // Set the sender ID from authenticated user
-        messageDto.setSenderId(user.getId());
+        if (!sendPipelineEnabled) {
+            // Set the sender ID from authenticated user
+            messageDto.setSenderId(user.getId());
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.ok(messageService.sendMessage(conversationId, messageDto)));
+        }
         
-        MessageDto sent = messageService.sendMessage(conversationId, messageDto);
-        return ResponseEntity.ok(sent);
+        return messageSendPipeline.submit(conversationId, user, messageDto.getText())
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> sendFailed(conversationId, e));
     }
 
     /**
@@ -100,7 +169,7 @@ public class MessageController {
      */
     @PutMapping("/messages/{messageId}")
     public ResponseEntity<MessageDto> updateMessage(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long messageId,
             @RequestBody Map<String, String> update) {
         
@@ -120,7 +189,7 @@ public class MessageController {
      */
     @DeleteMapping("/messages/{messageId}")
     public ResponseEntity<?> deleteMessage(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long messageId) {
         
         // Check if user is the message sender
@@ -137,7 +206,7 @@ public class MessageController {
      */
     @GetMapping("/conversations/{conversationId}/typing")
     public ResponseEntity<List<Long>> getTypingUsers(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long conversationId) {
         
         // Check if user has access to this conversation
@@ -154,7 +223,7 @@ public class MessageController {
      */
     @PostMapping("/conversations/{conversationId}/typing")
     public ResponseEntity<?> updateTypingStatus(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long conversationId,
             @RequestBody Map<String, Boolean> status) {
         
@@ -174,7 +243,7 @@ public class MessageController {
      */
     @DeleteMapping("/conversations/{conversationId}")
     public ResponseEntity<?> deleteConversation(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long conversationId) {
         
         // Check if user has access to this conversation
@@ -194,7 +263,7 @@ public class MessageController {
  */
 @PostMapping("/image-upload")
 public ResponseEntity<?> uploadMessageImage(
-        @AuthenticationPrincipal User user,
+        @AuthenticationPrincipal AuthenticatedUser user,
         @RequestParam("file") MultipartFile file,
         @RequestParam("conversationId") Long conversationId) {
     
@@ -243,4 +312,17 @@ public ResponseEntity<?> uploadMessageImage(
         ));
     }
 }
+
+    private ResponseEntity<MessageDto> sendFailed(Long conversationId, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(503).build();
+        }
+        if (cause instanceof DataIntegrityViolationException) {
+            logger.warn("Message to conversation {} was refused: {}", conversationId, cause.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        logger.error("Sending a message to conversation {} failed", conversationId, cause);
+        return ResponseEntity.status(500).build();
+    }
 }
\ No newline at end of file
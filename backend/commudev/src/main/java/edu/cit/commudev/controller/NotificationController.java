@@ -1,7 +1,9 @@
 package edu.cit.commudev.controller;
 
+import edu.cit.commudev.config.ConditionalGet;
 import edu.cit.commudev.entity.NotificationEntity;
 import edu.cit.commudev.service.NotificationService;
+import edu.cit.commudev.service.UnreadNotificationVersionProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -13,7 +15,6 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
-@CrossOrigin(origins = {"http://localhost:5173", "https://it-342-commu-dev-v675-git-master-nokitakis-projects.vercel.app", "https://it-342-commu-dev-v675.vercel.app"})
 public class NotificationController {
 
     @Autowired
@@ -47,6 +48,7 @@ public class NotificationController {
 
     // Count unread notifications
     @GetMapping("/unread/count")
+    @ConditionalGet(UnreadNotificationVersionProvider.class)
     public ResponseEntity<?> countUnreadNotifications() {
         try {
             long count = notificationService.countUnreadNotifications();
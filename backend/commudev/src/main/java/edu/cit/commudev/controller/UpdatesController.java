@@ -0,0 +1,38 @@
+package edu.cit.commudev.controller;
+
+import edu.cit.commudev.config.AuthenticatedUser;
+import edu.cit.commudev.dto.UpdatesDto;
+import edu.cit.commudev.service.UpdateWaitService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/updates")
+public class UpdatesController {
+
+    private static final long MAX_TIMEOUT_MS = 55000;
+
+    private final UpdateWaitService updateWaitService;
+
+    @Autowired
+    public UpdatesController(UpdateWaitService updateWaitService) {
+        this.updateWaitService = updateWaitService;
+    }
+
+    /**
+     * Long-poll for new messages, notifications or typing events.
+     * Returns as soon as something changed after "since", or with changed=false after the timeout;
+     * the returned sequence is the "since" for the next call.
+     */
+    @GetMapping("/wait")
+    public DeferredResult<UpdatesDto> waitForUpdates(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "25000") long timeout) {
+
+        long timeoutMillis = Math.max(1000, Math.min(timeout, MAX_TIMEOUT_MS));
+        return updateWaitService.waitForUpdates(user.getId(), since, timeoutMillis);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when an email is added to the outbox
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailQueuedEventDto {
+    private Long emailId;
+}
\ No newline at end of file
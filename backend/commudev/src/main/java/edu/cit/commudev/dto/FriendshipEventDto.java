@@ -0,0 +1,17 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when two users become friends (created = true) or stop being friends
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FriendshipEventDto {
+    private Long userId;
+    private Long friendId;
+    private boolean created;
+}
\ No newline at end of file
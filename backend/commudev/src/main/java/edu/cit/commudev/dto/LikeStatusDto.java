@@ -0,0 +1,17 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a like toggle: whether the current user now likes the post, and its like count
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeStatusDto {
+    private int newsfeedId;
+    private boolean liked;
+    private int likeCount;
+}
\ No newline at end of file
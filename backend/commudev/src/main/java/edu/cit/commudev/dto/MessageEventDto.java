@@ -0,0 +1,23 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload pushed to clients over the message channel whenever a message
+ * in a conversation is created, edited or deleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageEventDto {
+    public static final String MESSAGE_CREATED = "MESSAGE_CREATED";
+    public static final String MESSAGE_UPDATED = "MESSAGE_UPDATED";
+    public static final String MESSAGE_DELETED = "MESSAGE_DELETED";
+
+    private String type; // MESSAGE_CREATED, MESSAGE_UPDATED, MESSAGE_DELETED
+    private Long conversationId;
+    private Long messageId;
+    private MessageDto message; // null for MESSAGE_DELETED
+}
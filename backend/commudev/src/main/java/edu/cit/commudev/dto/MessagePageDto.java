@@ -0,0 +1,21 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of conversation history, oldest message first.
+ * oldestId / newestId are the cursors for the next "before" / "after" request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessagePageDto {
+    private List<MessageDto> messages;
+    private boolean hasMore;
+    private Long oldestId;
+    private Long newestId;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when a notification is created for a user
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEventDto {
+    private Long userId;
+    private Long notificationId;
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Public author fields shown next to a post
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostAuthorDto {
+    private Long id;
+    private String username;
+    private String firstname;
+    private String lastname;
+    private String profilePicture;
+}
\ No newline at end of file
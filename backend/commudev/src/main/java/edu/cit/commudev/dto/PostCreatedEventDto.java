@@ -0,0 +1,19 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a newsfeed post is created
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCreatedEventDto {
+    private int newsfeedId;
+    private Long authorId;
+    private LocalDateTime postDate;
+}
\ No newline at end of file
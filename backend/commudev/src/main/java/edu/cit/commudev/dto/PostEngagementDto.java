@@ -0,0 +1,19 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Like and comment counters of one post, plus whether the viewer liked it.
+ * Returned in batches so the client can refresh a whole feed page at once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostEngagementDto {
+    private int newsfeedId;
+    private long likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package edu.cit.commudev.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a newsfeed post.
+ * Uses the same field names as NewsfeedEntity, but carries only an author summary
+ * instead of the full User, plus the comment count and the viewer's like state.
+ */
+@Data
+@NoArgsConstructor
+public class PostViewDto {
+    private int newsfeedId;
+    private String postDescription;
+    private String postType;
+    private String postStatus;
+    private LocalDateTime postDate;
+    private LocalDateTime updatedAt;
+    private int likeCount;
+    private long commentCount;
+    private boolean likedByViewer;
+    private PostAuthorDto user;
+
+    // Used by JPQL constructor expressions, which cannot build the nested author themselves
+    public PostViewDto(int newsfeedId, String postDescription, String postType, String postStatus,
+                       LocalDateTime postDate, LocalDateTime updatedAt, int likeCount,
+                       long commentCount, boolean likedByViewer,
+                       Long userId, String username, String firstname, String lastname, String profilePicture) {
+        this.newsfeedId = newsfeedId;
+        this.postDescription = postDescription;
+        this.postType = postType;
+        this.postStatus = postStatus;
+        this.postDate = postDate;
+        this.updatedAt = updatedAt;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+        this.likedByViewer = likedByViewer;
+        this.user = new PostAuthorDto(userId, username, firstname, lastname, profilePicture);
+    }
+}
\ No newline at end of file
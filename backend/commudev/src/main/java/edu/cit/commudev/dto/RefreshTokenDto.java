@@ -0,0 +1,10 @@
+package edu.cit.commudev.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefreshTokenDto {
+    private String refreshToken;
+}
\ No newline at end of file
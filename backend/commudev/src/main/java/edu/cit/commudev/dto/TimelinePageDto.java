@@ -0,0 +1,20 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a timeline, newest post first.
+ * nextCursor is passed back as "cursor" to get the following (older) page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelinePageDto {
+    private List<PostViewDto> posts;
+    private boolean hasMore;
+    private String nextCursor;
+}
\ No newline at end of file
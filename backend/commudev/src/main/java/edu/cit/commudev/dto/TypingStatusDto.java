@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TypingStatusDto {
+    private Long conversationId;
     private Long userId;
     private boolean isTyping;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Result of a long-poll wait: the sequence to send as "since" next time and what changed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdatesDto {
+    public static final String MESSAGES = "messages";
+    public static final String NOTIFICATIONS = "notifications";
+    public static final String TYPING = "typing";
+
+    private long sequence;
+    private boolean changed;
+    private Set<String> types;
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Slim projection of a user for authentication: one row per role of the user
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCredentialsDto {
+    private Long id;
+    private String username;
+    private String email;
+    private String password;
+    private boolean enabled;
+    private String roleName;
+}
\ No newline at end of file
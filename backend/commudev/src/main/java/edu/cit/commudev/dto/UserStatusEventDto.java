@@ -0,0 +1,16 @@
+package edu.cit.commudev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published when an administrator enables or disables a user account
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatusEventDto {
+    private Long userId;
+    private boolean enabled;
+}
\ No newline at end of file
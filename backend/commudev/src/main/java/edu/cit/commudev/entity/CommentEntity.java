@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    // Comment counts per post in the post read model
+    @Index(name = "idx_comments_newsfeed_id", columnList = "newsfeed_id")
+})
 public class CommentEntity {
     
     @Id
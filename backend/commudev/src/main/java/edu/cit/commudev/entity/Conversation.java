@@ -9,7 +9,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_conversations_direct_key", columnNames = "direct_key")
+})
 @Data
 @NoArgsConstructor
 public class Conversation {
@@ -28,6 +30,10 @@ public class Conversation {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Canonical "minUserId:maxUserId" key of a 1:1 conversation; unique so a pair has one conversation
+    @Column(name = "direct_key", length = 64)
+    private String directKey;
+    
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ConversationParticipant> participants = new ArrayList<>();
     
@@ -58,4 +64,9 @@ public class Conversation {
         this.lastSenderId = message.getSender().getId();
         this.lastUpdated = LocalDateTime.now();
     }
+    
+    // Helper method to build the canonical key for a pair of users
+    public static String directKeyFor(Long userId1, Long userId2) {
+        return Math.min(userId1, userId2) + ":" + Math.max(userId1, userId2);
+    }
 }
\ No newline at end of file
@@ -3,11 +3,14 @@ package edu.cit.commudev.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "conversation_participants")
+@Table(name = "conversation_participants", indexes = {
+    @Index(name = "idx_participants_conversation_user", columnList = "conversation_id, user_id")
+})
 @Data
 @NoArgsConstructor
 public class ConversationParticipant {
@@ -26,6 +29,15 @@ public class ConversationParticipant {
     @Column(name = "joined_at")
     private LocalDateTime joinedAt;
     
+    // Highest message ID this participant has read; everything after it is unread
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+    
+    // Messages from others past the watermark; maintained on write so reads are O(1)
+    @ColumnDefault("0")
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+    
     @PrePersist
     protected void onCreate() {
         this.joinedAt = LocalDateTime.now();
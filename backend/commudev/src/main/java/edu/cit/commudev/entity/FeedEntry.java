@@ -0,0 +1,47 @@
+package edu.cit.commudev.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized home timeline row: post newsfeedId is visible in owner's home feed.
+ * Written on post creation (fan-out on write); postDate is copied from the post so a
+ * home timeline page is a single range scan on (owner_id, post_date, newsfeed_id).
+ * Plain ID columns instead of associations, so deleting a post or user is never blocked here.
+ */
+@Entity
+@Table(name = "feed_entries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_feed_entries_owner_post", columnNames = {"owner_id", "newsfeed_id"})
+}, indexes = {
+    @Index(name = "idx_feed_entries_owner_timeline", columnList = "owner_id, post_date, newsfeed_id"),
+    @Index(name = "idx_feed_entries_newsfeed", columnList = "newsfeed_id")
+})
+@Data
+@NoArgsConstructor
+public class FeedEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "newsfeed_id", nullable = false)
+    private int newsfeedId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "post_date", nullable = false)
+    private LocalDateTime postDate;
+
+    public FeedEntry(Long ownerId, int newsfeedId, Long authorId, LocalDateTime postDate) {
+        this.ownerId = ownerId;
+        this.newsfeedId = newsfeedId;
+        this.authorId = authorId;
+        this.postDate = postDate;
+    }
+}
\ No newline at end of file
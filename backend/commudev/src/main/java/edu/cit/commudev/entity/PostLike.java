@@ -4,7 +4,12 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "post_likes")
+@Table(name = "post_likes", uniqueConstraints = {
+    // One like per user and post; concurrent toggles race on this instead of double-counting
+    @UniqueConstraint(name = "uk_post_likes_user_post", columnNames = {"user_id", "newsfeed_id"})
+}, indexes = {
+    @Index(name = "idx_post_likes_newsfeed_id", columnList = "newsfeed_id")
+})
 public class PostLike {
     
     @Id
@@ -0,0 +1,25 @@
+package edu.cit.commudev.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change counter for a shared resource, e.g. the newsfeed.
+ * Writers bump it after committing, so a conditional GET reads one row by primary key
+ * instead of aggregating over the resource's tables.
+ */
+@Entity
+@Table(name = "resource_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceVersion {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+}
\ No newline at end of file
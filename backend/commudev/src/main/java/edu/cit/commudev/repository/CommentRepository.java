@@ -3,8 +3,11 @@ package edu.cit.commudev.repository;
 import edu.cit.commudev.entity.CommentEntity;
 import edu.cit.commudev.entity.NewsfeedEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,5 +24,10 @@ public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
     // Count comments for a post
     long countByPostNewsfeedId(int newsfeedId);
 
+    // Comment counts for a batch of posts as (newsfeedId, count) rows; posts without comments are absent
+    @Query("SELECT c.post.newsfeedId, COUNT(c) FROM CommentEntity c " +
+           "WHERE c.post.newsfeedId IN :postIds GROUP BY c.post.newsfeedId")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Integer> postIds);
+
     void deleteByPostNewsfeedId(int postId);
 }                           
\ No newline at end of file
@@ -2,6 +2,9 @@ package edu.cit.commudev.repository;
 
 import edu.cit.commudev.entity.ConversationParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,71 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
     Optional<ConversationParticipant> findByConversationIdAndUserId(Long conversationId, Long userId);
     
     boolean existsByConversationIdAndUserId(Long conversationId, Long userId);
+
+    @Query("SELECT p.user.id FROM ConversationParticipant p WHERE p.conversation.id = :conversationId")
+    List<Long> findUserIdsByConversationId(@Param("conversationId") Long conversationId);
+
+    @Query("SELECT p.user.id, p.lastReadMessageId FROM ConversationParticipant p WHERE p.conversation.id = :conversationId")
+    List<Object[]> findReadWatermarks(@Param("conversationId") Long conversationId);
+
+    // Only moves the watermark forward, so out-of-order or repeated calls are harmless.
+    // The counter is recomputed from the small range of messages still past the new watermark.
+    @Modifying
+    @Query("UPDATE ConversationParticipant p SET p.lastReadMessageId = :messageId, " +
+           "p.unreadCount = (SELECT COUNT(m) FROM Message m " +
+           " WHERE m.conversation.id = :conversationId AND m.id > :messageId " +
+           " AND m.sender.id != :userId AND m.read = false) " +
+           "WHERE p.conversation.id = :conversationId AND p.user.id = :userId " +
+           "AND (p.lastReadMessageId IS NULL OR p.lastReadMessageId < :messageId)")
+    int advanceReadWatermark(@Param("conversationId") Long conversationId,
+                             @Param("userId") Long userId,
+                             @Param("messageId") Long messageId);
+
+    @Modifying
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = 0, p.lastReadMessageId = " +
+           "(SELECT MAX(m.id) FROM Message m WHERE m.conversation.id = :conversationId) " +
+           "WHERE p.conversation.id = :conversationId AND p.user.id = :userId " +
+           "AND (p.lastReadMessageId IS NULL OR p.lastReadMessageId < " +
+           "(SELECT MAX(m2.id) FROM Message m2 WHERE m2.conversation.id = :conversationId))")
+    int advanceReadWatermarkToLatest(@Param("conversationId") Long conversationId,
+                                     @Param("userId") Long userId);
+
+    // Single atomic UPDATE, so concurrent senders in one conversation never lose increments
+    @Modifying
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = p.unreadCount + 1 " +
+           "WHERE p.conversation.id = :conversationId AND p.user.id != :senderId")
+    int incrementUnreadCount(@Param("conversationId") Long conversationId,
+                             @Param("senderId") Long senderId);
+
+    // Undo the increment for recipients that had not read the deleted message yet
+    @Modifying
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = p.unreadCount - 1 " +
+           "WHERE p.conversation.id = :conversationId AND p.user.id != :senderId " +
+           "AND p.unreadCount > 0 " +
+           "AND (p.lastReadMessageId IS NULL OR p.lastReadMessageId < :messageId)")
+    int decrementUnreadCount(@Param("conversationId") Long conversationId,
+                             @Param("senderId") Long senderId,
+                             @Param("messageId") Long messageId);
+
+    @Query("SELECT COALESCE(SUM(p.unreadCount), 0) FROM ConversationParticipant p WHERE p.user.id = :userId")
+    long sumUnreadCountByUserId(@Param("userId") Long userId);
+
+    // Rebuild counters from messages, only touching rows that drifted
+    @Modifying
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = " +
+           "(SELECT COUNT(m) FROM Message m WHERE m.conversation.id = p.conversation.id " +
+           " AND m.id > COALESCE(p.lastReadMessageId, 0) AND m.sender.id != p.user.id AND m.read = false) " +
+           "WHERE p.unreadCount != " +
+           "(SELECT COUNT(m2) FROM Message m2 WHERE m2.conversation.id = p.conversation.id " +
+           " AND m2.id > COALESCE(p.lastReadMessageId, 0) AND m2.sender.id != p.user.id AND m2.read = false)")
+    int reconcileUnreadCounts();
+
+    // Cheap aggregate that changes whenever the user's inbox would change
+    @Query("SELECT COUNT(p), MAX(c.lastUpdated), COALESCE(SUM(p.unreadCount), 0), MAX(ou.updatedAt) " +
+           "FROM ConversationParticipant p " +
+           "JOIN p.conversation c " +
+           "LEFT JOIN ConversationParticipant op ON op.conversation.id = c.id AND op.user.id != :userId " +
+           "LEFT JOIN op.user ou " +
+           "WHERE p.user.id = :userId")
+    List<Object[]> findInboxVersion(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package edu.cit.commudev.repository;
 
+import edu.cit.commudev.dto.ConversationDto;
 import edu.cit.commudev.entity.Conversation;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -17,11 +18,32 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
            "ORDER BY c.lastUpdated DESC")
     List<Conversation> findByParticipantId(@Param("userId") Long userId);
     
+    Optional<Conversation> findByDirectKey(String directKey);
+    
+    // Legacy lookup for conversations created before direct keys existed; may return duplicates
     @Query("SELECT c FROM Conversation c " +
            "JOIN c.participants p1 " +
            "JOIN c.participants p2 " +
-           "WHERE p1.user.id = :userId1 AND p2.user.id = :userId2")
-    Optional<Conversation> findConversationBetweenUsers(
+           "WHERE p1.user.id = :userId1 AND p2.user.id = :userId2 " +
+           "ORDER BY c.id ASC")
+    List<Conversation> findConversationsBetweenUsers(
             @Param("userId1") Long userId1, 
             @Param("userId2") Long userId2);
+    
+    // Inbox rows for a user in one statement: conversation, other participant and unread counter
+    @Query("SELECT new edu.cit.commudev.dto.ConversationDto(" +
+           "c.id, c.lastMessage, c.lastSenderId, c.lastUpdated, c.createdAt, " +
+           "ou.id, " +
+           "CASE WHEN ou.firstname IS NOT NULL AND ou.lastname IS NOT NULL THEN CONCAT(ou.firstname, ' ', ou.lastname) " +
+           "WHEN ou.firstname IS NOT NULL THEN ou.firstname " +
+           "ELSE ou.username END, " +
+           "ou.profilePicture, ou.username, " +
+           "me.unreadCount) " +
+           "FROM ConversationParticipant me " +
+           "JOIN me.conversation c " +
+           "LEFT JOIN ConversationParticipant op ON op.conversation.id = c.id AND op.user.id != :userId " +
+           "LEFT JOIN op.user ou " +
+           "WHERE me.user.id = :userId " +
+           "ORDER BY c.lastUpdated DESC")
+    List<ConversationDto> findInboxByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package edu.cit.commudev.repository;
+
+import edu.cit.commudev.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    // IDs of pending emails whose next attempt is due, oldest first
+    @Query("SELECT e.id FROM EmailOutbox e " +
+           "WHERE e.status = edu.cit.commudev.entity.EmailOutbox.Status.PENDING AND e.nextAttemptAt <= :now " +
+           "ORDER BY e.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claim a pending email for delivery; returns 0 if another worker or instance got it first
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = edu.cit.commudev.entity.EmailOutbox.Status.SENDING, e.claimedAt = :now " +
+           "WHERE e.id = :id AND e.status = edu.cit.commudev.entity.EmailOutbox.Status.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Return emails stuck in SENDING (e.g. the instance died mid-delivery) to the queue
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = edu.cit.commudev.entity.EmailOutbox.Status.PENDING, e.claimedAt = null " +
+           "WHERE e.status = edu.cit.commudev.entity.EmailOutbox.Status.SENDING AND e.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+}
\ No newline at end of file
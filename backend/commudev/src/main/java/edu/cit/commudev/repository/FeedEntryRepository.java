@@ -0,0 +1,45 @@
+package edu.cit.commudev.repository;
+
+import edu.cit.commudev.dto.PostViewDto;
+import edu.cit.commudev.entity.FeedEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, Long> {
+
+    // Home timeline: one range scan over (owner_id, post_date, newsfeed_id), joined to the post and author
+    @Query(NewsfeedRepo.POST_VIEW_SELECT +
+           "FROM FeedEntry f JOIN NewsfeedEntity n ON n.newsfeedId = f.newsfeedId JOIN n.user u " +
+           "WHERE f.ownerId = :ownerId " +
+           "ORDER BY f.postDate DESC, f.newsfeedId DESC")
+    List<PostViewDto> findHomeTimeline(@Param("ownerId") Long ownerId,
+                                       @Param("viewerId") Long viewerId,
+                                       Pageable pageable);
+
+    @Query(NewsfeedRepo.POST_VIEW_SELECT +
+           "FROM FeedEntry f JOIN NewsfeedEntity n ON n.newsfeedId = f.newsfeedId JOIN n.user u " +
+           "WHERE f.ownerId = :ownerId " +
+           "AND (f.postDate < :postDate OR (f.postDate = :postDate AND f.newsfeedId < :newsfeedId)) " +
+           "ORDER BY f.postDate DESC, f.newsfeedId DESC")
+    List<PostViewDto> findHomeTimelineBefore(@Param("ownerId") Long ownerId,
+                                             @Param("postDate") LocalDateTime postDate,
+                                             @Param("newsfeedId") int newsfeedId,
+                                             @Param("viewerId") Long viewerId,
+                                             Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry f WHERE f.newsfeedId = :newsfeedId")
+    int deleteByNewsfeedId(@Param("newsfeedId") int newsfeedId);
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry f WHERE f.ownerId = :ownerId AND f.authorId = :authorId")
+    int deleteByOwnerIdAndAuthorId(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+}
\ No newline at end of file
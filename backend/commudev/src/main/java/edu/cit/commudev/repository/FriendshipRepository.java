@@ -3,8 +3,11 @@ package edu.cit.commudev.repository;
 import edu.cit.commudev.entity.Friendship;
 import edu.cit.commudev.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,4 +27,19 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
      * Check if a friendship exists between two users (directional)
      */
     boolean existsByUserOneAndUserTwo(User userOne, User userTwo);
+    
+    /**
+     * Count the friendships a user takes part in (either side)
+     */
+    @Query("SELECT COUNT(f) FROM Friendship f WHERE f.userOne.id = :userId OR f.userTwo.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Find which of the candidate users are friends of a user
+     */
+    @Query("SELECT DISTINCT CASE WHEN f.userOne.id = :userId THEN f.userTwo.id ELSE f.userOne.id END " +
+           "FROM Friendship f " +
+           "WHERE (f.userOne.id = :userId AND f.userTwo.id IN :candidateIds) " +
+           "OR (f.userTwo.id = :userId AND f.userOne.id IN :candidateIds)")
+    List<Long> findFriendIdsAmong(@Param("userId") Long userId, @Param("candidateIds") Collection<Long> candidateIds);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package edu.cit.commudev.repository;
 
 import edu.cit.commudev.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,9 +13,25 @@ import java.util.List;
 public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByConversationIdOrderByTimestampAsc(Long conversationId);
     
-    @Query("SELECT COUNT(m) FROM Message m " +
+    // Keyset queries over the (conversation_id, id) index; the sender is fetched in the same query
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender " +
            "WHERE m.conversation.id = :conversationId " +
-           "AND m.sender.id != :userId " +
-           "AND m.read = false")
-    int countUnreadMessages(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+           "ORDER BY m.id DESC")
+    List<Message> findLatest(@Param("conversationId") Long conversationId, Pageable pageable);
+    
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender " +
+           "WHERE m.conversation.id = :conversationId " +
+           "AND m.id < :beforeId " +
+           "ORDER BY m.id DESC")
+    List<Message> findBefore(@Param("conversationId") Long conversationId,
+                             @Param("beforeId") Long beforeId,
+                             Pageable pageable);
+    
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender " +
+           "WHERE m.conversation.id = :conversationId " +
+           "AND m.id > :afterId " +
+           "ORDER BY m.id ASC")
+    List<Message> findAfter(@Param("conversationId") Long conversationId,
+                            @Param("afterId") Long afterId,
+                            Pageable pageable);
 }
\ No newline at end of file
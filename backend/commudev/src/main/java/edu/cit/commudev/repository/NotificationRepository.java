@@ -3,6 +3,8 @@ package edu.cit.commudev.repository;
 import edu.cit.commudev.entity.NotificationEntity;
 import edu.cit.commudev.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,4 +22,9 @@ public interface NotificationRepository extends JpaRepository<NotificationEntity
     
     // Find notifications related to a specific post
     List<NotificationEntity> findByRelatedPostId(Integer postId);
+    
+    // Version of a user's unread notifications for conditional GETs
+    @Query("SELECT COUNT(n), MAX(n.notificationId) FROM NotificationEntity n " +
+           "WHERE n.user.id = :userId AND n.isRead = false")
+    List<Object[]> findUnreadVersion(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -4,8 +4,13 @@ import edu.cit.commudev.entity.NewsfeedEntity;
 import edu.cit.commudev.entity.PostLike;
 import edu.cit.commudev.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,5 +20,25 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     long countByPost(NewsfeedEntity post);
     boolean existsByUserIdAndPostNewsfeedId(Long userId, int postId);
     void deleteByPostNewsfeedId(int postId);
-    
+
+    // Remove the user's like in one statement; returns 1 if there was one
+    @Modifying
+    @Query("DELETE FROM PostLike l WHERE l.user.id = :userId AND l.post.newsfeedId = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") int postId);
+
+    // Add a like without loading the user or post; fails on uk_post_likes_user_post if it already exists
+    @Modifying
+    @Query(value = "INSERT INTO post_likes (user_id, newsfeed_id, created_at) VALUES (:userId, :postId, CURRENT_TIMESTAMP)",
+           nativeQuery = true)
+    int insertLike(@Param("userId") Long userId, @Param("postId") int postId);
+
+    // Like counts for a batch of posts as (newsfeedId, count) rows; posts without likes are absent
+    @Query("SELECT l.post.newsfeedId, COUNT(l) FROM PostLike l " +
+           "WHERE l.post.newsfeedId IN :postIds GROUP BY l.post.newsfeedId")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Integer> postIds);
+
+    // Which posts of a batch the user has liked
+    @Query("SELECT l.post.newsfeedId FROM PostLike l " +
+           "WHERE l.user.id = :userId AND l.post.newsfeedId IN :postIds")
+    List<Integer> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Integer> postIds);
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package edu.cit.commudev.repository;
 
+import edu.cit.commudev.dto.UserCredentialsDto;
 import edu.cit.commudev.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,6 +33,54 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Find a user by email or username in a single query (both columns are unique, hence indexed).
+     * An email match is preferred if the identifier matches two different users.
+     *
+     * @param identifier email or username
+     * @return Optional of User
+     */
+    default Optional<User> findByIdentifier(String identifier) {
+        return findAllByIdentifier(identifier).stream().findFirst();
+    }
+
+    @Query("SELECT u FROM User u WHERE u.email = :identifier OR u.username = :identifier " +
+           "ORDER BY CASE WHEN u.email = :identifier THEN 0 ELSE 1 END")
+    List<User> findAllByIdentifier(@Param("identifier") String identifier);
+
+    /**
+     * Slim credentials lookup for authentication: ID, names, password hash, enabled flag and
+     * role names in one round-trip, without loading the User entity.
+     *
+     * @param identifier email or username
+     * @return one row per role of each matching user
+     */
+    @Query("SELECT new edu.cit.commudev.dto.UserCredentialsDto(u.id, u.username, u.email, u.password, u.enabled, r.name) " +
+           "FROM User u LEFT JOIN u.roles r " +
+           "WHERE u.email = :identifier OR u.username = :identifier")
+    List<UserCredentialsDto> findCredentialsByIdentifier(@Param("identifier") String identifier);
+
+    /**
+     * IDs of accounts disabled by an administrator. Accounts still awaiting email verification
+     * are also disabled but hold a verification code, and cannot have been issued a token.
+     *
+     * @return list of user IDs
+     */
+    @Query("SELECT u.id FROM User u WHERE u.enabled = false AND u.verificationCode IS NULL")
+    List<Long> findDisabledUserIds();
+
+    /**
+     * Replace a user's password hash.
+     *
+     * @param id user ID
+     * @param password the new hash
+     * @return number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
     /**
      * Find a user by their verification code.
      *
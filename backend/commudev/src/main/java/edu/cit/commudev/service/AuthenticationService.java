@@ -5,18 +5,23 @@ import edu.cit.commudev.dto.RegisterUserDto;
 import edu.cit.commudev.dto.VerifyUserDto;
 import edu.cit.commudev.entity.Role;
 import edu.cit.commudev.entity.User;
+import edu.cit.commudev.exception.LoginThrottledException;
 import edu.cit.commudev.repository.RoleRepository;
 import edu.cit.commudev.repository.UserRepository;
-import jakarta.mail.MessagingException;
+import edu.cit.commudev.utils.SecurityLogger;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Random;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Service
@@ -28,7 +33,11 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final TokenRevocationService revocationService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginAttemptThrottle loginThrottle;
+    private final SecurityLogger securityLogger;
 
     public AuthenticationService(
             UserRepository userRepository,
@@ -36,14 +45,22 @@ public class AuthenticationService {
             PasswordEncoder passwordEncoder,
             AuthenticationManager authenticationManager,
             JwtService jwtService,
-            EmailService emailService
+            EmailOutboxService emailOutboxService,
+            TokenRevocationService revocationService,
+            PasswordHashingExecutor passwordHashingExecutor,
+            LoginAttemptThrottle loginThrottle,
+            SecurityLogger securityLogger
     ) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
-        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
+        this.revocationService = revocationService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.loginThrottle = loginThrottle;
+        this.securityLogger = securityLogger;
     }
 
     @Transactional
@@ -73,7 +90,7 @@ public class AuthenticationService {
         User user = new User(
                 input.getUsername(),
                 input.getEmail(),
-                passwordEncoder.encode(input.getPassword())
+                passwordHashingExecutor.execute(() -> passwordEncoder.encode(input.getPassword()))
         );
 
         // Generate verification code
@@ -88,19 +105,21 @@ public class AuthenticationService {
         User savedUser = userRepository.save(user);
         logger.info("User saved with ID: " + savedUser.getId());
 
-        // After successful save, send email
-        try {
-            emailService.sendVerificationEmail(savedUser.getEmail(), "Account Verification",
-                    "Your verification code is: " + verificationCode);
-            logger.info("Verification email sent successfully to: " + savedUser.getEmail());
-        } catch (MessagingException e) {
-            logger.log(Level.WARNING, "Failed to send verification email", e);
-            // Don't throw exception here, just log it
-        }
+        // Queued with the user row; delivered after commit without holding this transaction
+        emailOutboxService.enqueueVerificationEmail(savedUser.getEmail(), "Account Verification",
+                "Your verification code is: " + verificationCode);
+        logger.info("Verification email queued for: " + savedUser.getEmail());
 
         return savedUser;
     }
 
+    /**
+     * Check a user's credentials.
+     *
+     * @throws LoginThrottledException if the email from this client IP, or the IP itself,
+     *         has too many recent failures
+     * @throws java.util.concurrent.RejectedExecutionException if password hashing is saturated
+     */
     public User authenticate(LoginUserDto input) {
         logger.info("Authenticating user: " + input.getEmail());
     
@@ -108,25 +127,74 @@ public class AuthenticationService {
         if (!input.getEmail().contains("@")) {
             throw new RuntimeException("Please use your email address to login");
         }
+
+        // Refuse throttled attempts before doing any lookup or hashing
+        String clientIp = securityLogger.currentClientIp();
+        long retryAfter = loginThrottle.retryAfterSeconds(input.getEmail(), clientIp);
+        if (retryAfter > 0) {
+            securityLogger.logLoginThrottled(input.getEmail(), retryAfter);
+            throw new LoginThrottledException(retryAfter);
+        }
     
         // Try to find user by email only, not by username
-        User user = userRepository.findByEmail(input.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = userRepository.findByEmail(input.getEmail()).orElse(null);
+        if (user == null) {
+            loginThrottle.recordFailure(input.getEmail(), clientIp);
+            throw new RuntimeException("User not found");
+        }
     
         // Check verification
         if (!user.isEnabled()) {
             throw new RuntimeException("Account not verified. Please verify your account.");
         }
     
-        // Authenticate
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getUsername(), input.getPassword())
-        );
+        // Authenticate on the bounded hashing pool, not the request thread's CPU budget
+        try {
+            passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(user.getUsername(), input.getPassword())
+            ));
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(input.getEmail(), clientIp);
+            securityLogger.logAuthenticationFailure(input.getEmail(), e.getMessage());
+            throw e;
+        }
+        loginThrottle.recordSuccess(input.getEmail(), clientIp);
     
         logger.info("Authentication successful for user: " + user.getUsername());
         return user;
     }
 
+    /**
+     * Exchange a refresh token for its user.
+     * Refresh tokens rotate: each one is revoked as it is used, so it can be exchanged once.
+     *
+     * @param refreshToken the refresh token issued at login or by a previous refresh
+     * @return the user to issue new tokens for
+     */
+    public User authenticateRefreshToken(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtService.verify(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        if (!JwtService.REFRESH_TOKEN.equals(claims.get(JwtService.TOKEN_TYPE_CLAIM))
+                || !revocationService.revoke(claims.getId(), claims.getExpiration().getTime())) {
+            // Wrong token type, or this refresh token was already used
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        Number userId = claims.get("userId", Number.class);
+        User user = userRepository.findById(userId.longValue())
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        if (!user.isEnabled()) {
+            throw new DisabledException("Account disabled");
+        }
+        return user;
+    }
+
     @Transactional
     public void verifyUser(VerifyUserDto input) {
         logger.info("Verifying user with email: " + input.getEmail());
@@ -167,15 +235,10 @@ public class AuthenticationService {
         user.setVerificationCodeExpiresAt(LocalDateTime.now().plusHours(24));
         userRepository.save(user);
 
-        // Send email
-        try {
-            emailService.sendVerificationEmail(email, "Account Verification",
-                    "Your new verification code is: " + newCode);
-            logger.info("New verification code sent to: " + email);
-        } catch (MessagingException e) {
-            logger.log(Level.SEVERE, "Failed to send verification email", e);
-            throw new RuntimeException("Failed to send verification email", e);
-        }
+        // Queue email; it is delivered (and retried) after this transaction commits
+        emailOutboxService.enqueueVerificationEmail(email, "Account Verification",
+                "Your new verification code is: " + newCode);
+        logger.info("New verification code queued for: " + email);
     }
 
     private String generateVerificationCode() {
@@ -26,6 +26,9 @@ public class CommentService {
     
     @Autowired
     private NotificationService notificationService; // Added NotificationService
+    
+    @Autowired
+    private NewsfeedVersionProvider newsfeedVersionProvider;
 
     // Create a new comment
     public CommentEntity createComment(String commentText, int postId) {
@@ -47,6 +50,9 @@ public class CommentService {
         // Create notification for the post owner
         notificationService.createCommentNotification(savedComment, post);
         
+        // Comment counts are part of the feed
+        newsfeedVersionProvider.markChanged();
+        
         return savedComment;
     }
 
@@ -95,6 +101,7 @@ public class CommentService {
         
         // Delete the comment
         commentRepository.deleteById(commentId);
+        newsfeedVersionProvider.markChanged();
     }
 
     // Get comments by current user
@@ -0,0 +1,75 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.repository.ConversationParticipantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory cache of conversation participants.
+ * Participants never change once a conversation is created, so the set is loaded
+ * once per conversation and only evicted when the conversation is deleted or, once
+ * the cache is full, when it is the least recently used entry.
+ */
+@Component
+public class ConversationAccessCache {
+
+    private final ConversationParticipantRepository participantRepository;
+    private final Map<Long, Set<Long>> participantsByConversation;
+
+    public ConversationAccessCache(
+            ConversationParticipantRepository participantRepository,
+            @Value("${app.messaging.access-cache-size:10000}") int maxEntries) {
+        this.participantRepository = participantRepository;
+        // Access-ordered, so a full cache drops only its least recently used conversation
+        this.participantsByConversation = Collections.synchronizedMap(
+                new LinkedHashMap<Long, Set<Long>>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, Set<Long>> eldest) {
+                        return size() > maxEntries;
+                    }
+                });
+    }
+
+    /**
+     * Get the user IDs participating in a conversation
+     *
+     * @param conversationId conversation ID
+     * @return participant user IDs (empty if the conversation does not exist)
+     */
+    public Set<Long> getParticipantIds(Long conversationId) {
+        Set<Long> cached = participantsByConversation.get(conversationId);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Long> userIds = participantRepository.findUserIdsByConversationId(conversationId);
+        Set<Long> participants = Set.copyOf(userIds);
+
+        // Unknown conversations are not cached so a later create is seen immediately
+        if (!participants.isEmpty()) {
+            participantsByConversation.put(conversationId, participants);
+        }
+
+        return participants;
+    }
+
+    /**
+     * Check if a user participates in a conversation
+     */
+    public boolean isParticipant(Long conversationId, Long userId) {
+        return getParticipantIds(conversationId).contains(userId);
+    }
+
+    /**
+     * Forget a conversation (called when it is deleted)
+     */
+    public void evict(Long conversationId) {
+        participantsByConversation.remove(conversationId);
+    }
+}
\ No newline at end of file
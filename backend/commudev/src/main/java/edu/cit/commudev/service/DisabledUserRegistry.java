@@ -0,0 +1,82 @@
+package edu.cit.commudev.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * IDs of accounts an administrator has disabled, consulted on every authenticated request.
+ * Status changes on this instance apply at once; the full set is reloaded from the database
+ * at startup and periodically, so changes made before a restart or on another instance are
+ * picked up within one reload interval.
+ */
+@Service
+public class DisabledUserRegistry {
+    private volatile Set<Long> disabledUserIds = ConcurrentHashMap.newKeySet();
+
+    // Changes seen while a reload is running, re-applied over the loaded snapshot; guarded by this
+    private Map<Long, Boolean> changesDuringReload;
+
+    /**
+     * Check whether a user's account is disabled
+     */
+    public boolean isDisabled(Long userId) {
+        return userId != null && disabledUserIds.contains(userId);
+    }
+
+    /**
+     * Record a status change made on this instance
+     *
+     * @param userId user ID
+     * @param disabled true if the account was disabled, false if it was re-enabled
+     */
+    public synchronized void setDisabled(Long userId, boolean disabled) {
+        if (disabled) {
+            disabledUserIds.add(userId);
+        } else {
+            disabledUserIds.remove(userId);
+        }
+        if (changesDuringReload != null) {
+            changesDuringReload.put(userId, disabled);
+        }
+    }
+
+    /**
+     * Replace the set with a fresh copy, keeping any change recorded while it was loading
+     *
+     * @param loader reads the disabled user IDs from the database
+     */
+    public void reload(Supplier<? extends Collection<Long>> loader) {
+        synchronized (this) {
+            changesDuringReload = new HashMap<>();
+        }
+        Collection<Long> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringReload = null;
+            }
+            throw e;
+        }
+
+        Set<Long> fresh = ConcurrentHashMap.newKeySet();
+        fresh.addAll(loaded);
+        synchronized (this) {
+            changesDuringReload.forEach((userId, disabled) -> {
+                if (disabled) {
+                    fresh.add(userId);
+                } else {
+                    fresh.remove(userId);
+                }
+            });
+            changesDuringReload = null;
+            disabledUserIds = fresh;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.EmailQueuedEventDto;
+import edu.cit.commudev.entity.EmailOutbox;
+import edu.cit.commudev.repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Transactional outbox for outgoing email.
+ * Callers enqueue inside their own transaction, so the request never waits on SMTP and an email
+ * exists exactly when the change that caused it commits. A small worker pool delivers due rows
+ * (woken right after commit, with a periodic poll as backstop), rate limited, and retries failures
+ * with exponential backoff until max attempts is reached.
+ */
+@Service
+public class EmailOutboxService {
+    private static final Logger logger = Logger.getLogger(EmailOutboxService.class.getName());
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.mail.outbox-workers:2}")
+    private int workerCount;
+
+    @Value("${app.mail.outbox-batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.max-per-second:5}")
+    private double maxPerSecond;
+
+    @Value("${app.mail.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.retry-base-ms:30000}")
+    private long retryBaseMillis;
+
+    @Value("${app.mail.retry-max-ms:3600000}")
+    private long retryMaxMillis;
+
+    @Value("${app.mail.claim-timeout-ms:300000}")
+    private long claimTimeoutMillis;
+
+    private ExecutorService workers;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // Earliest time (System.nanoTime) the next email may be sent
+    private long nextSendAt;
+
+    public EmailOutboxService(
+            EmailOutboxRepository outboxRepository,
+            EmailService emailService,
+            ApplicationEventPublisher eventPublisher) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        nextSendAt = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a verification email. Must be called inside the transaction that creates
+     * or updates the user, so the email is only sent if that transaction commits.
+     *
+     * @param to recipient email
+     * @param subject email subject
+     * @param text verification text/code
+     */
+    @Transactional
+    public void enqueueVerificationEmail(String to, String subject, String text) {
+        EmailOutbox email = outboxRepository.save(
+                new EmailOutbox(to, subject, emailService.renderVerificationEmail(text)));
+        eventPublisher.publishEvent(new EmailQueuedEventDto(email.getId()));
+    }
+
+    /**
+     * Start delivery as soon as the enqueuing transaction commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmailQueued(EmailQueuedEventDto event) {
+        try {
+            workers.execute(this::drainDue);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the next poll after restart picks the email up
+        }
+    }
+
+    /**
+     * Hand due emails to the workers. Also runs periodically to pick up retries
+     * and anything queued while no wake-up was delivered.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox-poll-ms:5000}")
+    public void drainDue() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            outboxRepository.releaseStaleClaims(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(claimTimeoutMillis)));
+
+            List<Long> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+            for (Long id : dueIds) {
+                // The claim keeps concurrent drains and other instances from sending the same email
+                if (outboxRepository.claim(id, now) == 1) {
+                    workers.execute(() -> deliver(id));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to drain email outbox", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void deliver(Long id) {
+        EmailOutbox email = outboxRepository.findById(id).orElse(null);
+        if (email == null || email.getStatus() != EmailOutbox.Status.SENDING) {
+            return;
+        }
+
+        try {
+            acquireSendPermit();
+            emailService.sendHtmlEmail(email.getRecipient(), email.getSubject(), email.getHtmlBody());
+
+            email.setStatus(EmailOutbox.Status.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+            logger.info("Email " + id + " sent to: " + email.getRecipient());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            email.setStatus(EmailOutbox.Status.PENDING);
+        } catch (Exception e) {
+            scheduleRetry(email, e);
+        }
+
+        email.setClaimedAt(null);
+        outboxRepository.save(email);
+    }
+
+    private void scheduleRetry(EmailOutbox email, Exception error) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String message = String.valueOf(error.getMessage());
+        email.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.FAILED);
+            logger.log(Level.SEVERE, "Giving up on email " + email.getId() + " after " + attempts + " attempts", error);
+            return;
+        }
+
+        // Exponential backoff: base, 2x base, 4x base, ... capped at retryMaxMillis
+        long delay = Math.min(retryMaxMillis, retryBaseMillis << Math.min(attempts - 1, 20));
+        email.setStatus(EmailOutbox.Status.PENDING);
+        email.setNextAttemptAt(LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(delay)));
+        logger.log(Level.WARNING, "Email " + email.getId() + " failed (attempt " + attempts + "), retrying in "
+                + delay + " ms", error);
+    }
+
+    /**
+     * Block until the global send rate allows another email
+     */
+    private void acquireSendPermit() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextSendAt);
+            nextSendAt = slot + (long) (TimeUnit.SECONDS.toNanos(1) / maxPerSecond);
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package edu.cit.commudev.service;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,8 +14,15 @@ import org.springframework.stereotype.Service;
  */
 @Service
 public class EmailService {
+    private static final String CONTENT = "{{content}}";
+    private static final String YEAR = "{{year}}";
+
     private final JavaMailSender emailSender;
 
+    // Rendered once at startup; only the content and year are filled in per email
+    private String verificationTemplate;
+    private String passwordResetTemplate;
+
     @Value("${spring.mail.username:noreply@example.com}")
     private String fromEmail;
 
@@ -25,29 +33,53 @@ public class EmailService {
         this.emailSender = emailSender;
     }
 
+    @PostConstruct
+    void renderTemplates() {
+        verificationTemplate = createVerificationEmailTemplate(CONTENT);
+        passwordResetTemplate = createPasswordResetTemplate(CONTENT);
+    }
+
     /**
-     * Send a verification email with a verification code.
+     * Render the HTML body of a verification email.
+     *
+     * @param verificationText the verification text/code
+     * @return HTML content
+     */
+    public String renderVerificationEmail(String verificationText) {
+        return fill(verificationTemplate, verificationText);
+    }
+
+    /**
+     * Send an already rendered HTML email.
      *
      * @param to recipient email
      * @param subject email subject
-     * @param text email content
+     * @param htmlContent HTML body
      * @throws MessagingException if email cannot be sent
      */
-    public void sendVerificationEmail(String to, String subject, String text) throws MessagingException {
+    public void sendHtmlEmail(String to, String subject, String htmlContent) throws MessagingException {
         MimeMessage message = emailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
         helper.setFrom(fromEmail);
         helper.setTo(to);
         helper.setSubject(subject);
-
-        // Create HTML email content
-        String htmlContent = createVerificationEmailTemplate(text);
-
         helper.setText(htmlContent, true); // true indicates HTML content
         emailSender.send(message);
     }
 
+    /**
+     * Send a verification email with a verification code.
+     *
+     * @param to recipient email
+     * @param subject email subject
+     * @param text email content
+     * @throws MessagingException if email cannot be sent
+     */
+    public void sendVerificationEmail(String to, String subject, String text) throws MessagingException {
+        sendHtmlEmail(to, subject, renderVerificationEmail(text));
+    }
+
     /**
      * Send a password reset email.
      *
@@ -56,21 +88,10 @@ public class EmailService {
      * @throws MessagingException if email cannot be sent
      */
     public void sendPasswordResetEmail(String to, String resetToken) throws MessagingException {
-        MimeMessage message = emailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-        helper.setFrom(fromEmail);
-        helper.setTo(to);
-        helper.setSubject(appName + " - Password Reset");
-
         // Create reset link
         String resetLink = "https://yourapplication.com/reset-password?token=" + resetToken;
 
-        // Create HTML email content
-        String htmlContent = createPasswordResetTemplate(resetLink);
-
-        helper.setText(htmlContent, true); // true indicates HTML content
-        emailSender.send(message);
+        sendHtmlEmail(to, appName + " - Password Reset", fill(passwordResetTemplate, resetLink));
     }
 
     /**
@@ -99,7 +120,7 @@ public class EmailService {
                 + "</p>"
                 + "</div>"
                 + "<div style=\"margin-top: 20px; text-align: center; color: #999; font-size: 12px;\">"
-                + "<p>&copy; " + java.time.Year.now().getValue() + " " + appName + ". All rights reserved.</p>"
+                + "<p>&copy; " + YEAR + " " + appName + ". All rights reserved.</p>"
                 + "</div>"
                 + "</div>"
                 + "</body>"
@@ -135,10 +156,16 @@ public class EmailService {
                 + "</p>"
                 + "</div>"
                 + "<div style=\"margin-top: 20px; text-align: center; color: #999; font-size: 12px;\">"
-                + "<p>&copy; " + java.time.Year.now().getValue() + " " + appName + ". All rights reserved.</p>"
+                + "<p>&copy; " + YEAR + " " + appName + ". All rights reserved.</p>"
                 + "</div>"
                 + "</div>"
                 + "</body>"
                 + "</html>";
     }
+
+    private static String fill(String template, String content) {
+        return template
+                .replace(YEAR, String.valueOf(java.time.Year.now().getValue()))
+                .replace(CONTENT, content);
+    }
 }
\ No newline at end of file
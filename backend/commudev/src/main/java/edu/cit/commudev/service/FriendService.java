@@ -1,16 +1,16 @@
 package edu.cit.commudev.service;
 
+import edu.cit.commudev.config.CurrentUserProvider;
+import edu.cit.commudev.dto.FriendshipEventDto;
 import edu.cit.commudev.entity.FriendRequest;
 import edu.cit.commudev.entity.Friendship;
 import edu.cit.commudev.entity.User;
 import edu.cit.commudev.repository.FriendRequestRepository;
 import edu.cit.commudev.repository.FriendshipRepository;
 import edu.cit.commudev.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,25 +35,17 @@ public class FriendService {
     @Autowired
     private NotificationService notificationService;
 
-    /**
-     * Get the currently authenticated user
-     */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("No authenticated user found");
-        }
-        
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
-    }
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all friends of the current user
      */
     public List<User> getFriends() {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         List<Friendship> friendships = friendshipRepository.findByUserOneOrUserTwo(currentUser, currentUser);
         
         List<User> friends = new ArrayList<>();
@@ -74,7 +66,7 @@ public class FriendService {
     @Transactional
     public FriendRequest sendFriendRequest(Long userId) {
         // Get the current user
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         // Get the target user
         User targetUser = userRepository.findById(userId)
@@ -126,7 +118,7 @@ public class FriendService {
      * Get all pending friend requests for the current user
      */
     public List<FriendRequest> getPendingRequests() {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         return friendRequestRepository.findByReceiverAndStatus(currentUser, "PENDING");
     }
 
@@ -136,7 +128,7 @@ public class FriendService {
     @Transactional
     public FriendRequest acceptFriendRequest(Long requestId) {
         // Get the current user
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         // Find the friend request
         FriendRequest request = friendRequestRepository.findById(requestId)
@@ -172,6 +164,10 @@ public class FriendService {
         // Create a notification for the sender
         notificationService.createFriendRequestAcceptedNotification(savedRequest);
         
+        // Home timelines pick up each other's recent posts after commit
+        eventPublisher.publishEvent(new FriendshipEventDto(
+                request.getSender().getId(), request.getReceiver().getId(), true));
+        
         return savedRequest;
     }
 
@@ -181,7 +177,7 @@ public class FriendService {
     @Transactional
     public FriendRequest rejectFriendRequest(Long requestId) {
         // Get the current user
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         // Find the friend request
         FriendRequest request = friendRequestRepository.findById(requestId)
@@ -211,7 +207,7 @@ public class FriendService {
     @Transactional
     public void removeFriend(Long friendId) {
         // Get the current user
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         // Get the friend user
         User friendUser = userRepository.findById(friendId)
@@ -229,13 +225,15 @@ public class FriendService {
         for (Friendship friendship : friendships) {
             friendshipRepository.delete(friendship);
         }
+        
+        eventPublisher.publishEvent(new FriendshipEventDto(currentUser.getId(), friendUser.getId(), false));
     }
 
     /**
      * Check if a user is a friend of the current user
      */
     public boolean isFriend(Long userId) {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         User otherUser = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         
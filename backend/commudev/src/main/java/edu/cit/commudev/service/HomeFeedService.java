@@ -0,0 +1,261 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.FriendshipEventDto;
+import edu.cit.commudev.dto.PostCreatedEventDto;
+import edu.cit.commudev.dto.PostViewDto;
+import edu.cit.commudev.dto.TimelinePageDto;
+import edu.cit.commudev.repository.FeedEntryRepository;
+import edu.cit.commudev.repository.FriendshipRepository;
+import edu.cit.commudev.repository.NewsfeedRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Friends-only home timelines.
+ *
+ * Posts are fanned out on write: when a post is created, one INSERT ... SELECT over the author's
+ * friendships adds a feed_entries row for every friend (and one for the author), so reading a
+ * home timeline is a single range scan on (owner_id, post_date, newsfeed_id).
+ * Authors with more than fan-out-max-friends friends are fanned out on read instead: their posts
+ * are not copied, and readers who are friends with them merge in a keyset query over their posts.
+ *
+ * Every insert skips rows that already exist, so fan-out and backfill can overlap or be repeated.
+ */
+@Service
+public class HomeFeedService {
+    private static final Logger logger = LoggerFactory.getLogger(HomeFeedService.class);
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO feed_entries (owner_id, newsfeed_id, author_id, post_date) " +
+            "SELECT ?, n.newsfeed_id, n.user_id, n.post_date FROM newsfeed n WHERE n.newsfeed_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM feed_entries e WHERE e.owner_id = ? AND e.newsfeed_id = n.newsfeed_id)";
+
+    private static final String FAN_OUT_TO_FRIENDS =
+            "INSERT INTO feed_entries (owner_id, newsfeed_id, author_id, post_date) " +
+            "SELECT DISTINCT CASE WHEN f.user_one_id = ? THEN f.user_two_id ELSE f.user_one_id END, ?, ?, ? " +
+            "FROM friendships f WHERE (f.user_one_id = ? OR f.user_two_id = ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM feed_entries e WHERE e.newsfeed_id = ? " +
+            "AND e.owner_id = CASE WHEN f.user_one_id = ? THEN f.user_two_id ELSE f.user_one_id END)";
+
+    private static final String BACKFILL_FROM_AUTHOR =
+            "INSERT INTO feed_entries (owner_id, newsfeed_id, author_id, post_date) " +
+            "SELECT ?, n.newsfeed_id, n.user_id, n.post_date FROM newsfeed n " +
+            "WHERE n.user_id = ? AND n.post_date >= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM feed_entries e WHERE e.owner_id = ? AND e.newsfeed_id = n.newsfeed_id)";
+
+    private static final String BACKFILL_AUTHOR_TO_FRIENDS =
+            "INSERT INTO feed_entries (owner_id, newsfeed_id, author_id, post_date) " +
+            "SELECT DISTINCT CASE WHEN f.user_one_id = ? THEN f.user_two_id ELSE f.user_one_id END, " +
+            "n.newsfeed_id, n.user_id, n.post_date " +
+            "FROM friendships f JOIN newsfeed n ON n.user_id = ? " +
+            "WHERE (f.user_one_id = ? OR f.user_two_id = ?) AND n.post_date >= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM feed_entries e WHERE e.newsfeed_id = n.newsfeed_id " +
+            "AND e.owner_id = CASE WHEN f.user_one_id = ? THEN f.user_two_id ELSE f.user_one_id END)";
+
+    private static final String FIND_FAN_OUT_ON_READ_AUTHORS =
+            "SELECT x.user_id FROM (" +
+            "SELECT user_one_id AS user_id FROM friendships UNION ALL SELECT user_two_id AS user_id FROM friendships" +
+            ") x GROUP BY x.user_id HAVING COUNT(*) > ?";
+
+    private final FeedEntryRepository feedEntryRepository;
+    private final FriendshipRepository friendshipRepository;
+    private final NewsfeedRepo newsfeedRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+
+    @Value("${app.feed.fan-out-max-friends:1000}")
+    private int fanOutMaxFriends;
+
+    @Value("${app.feed.backfill-days:30}")
+    private int backfillDays;
+
+    // Authors whose posts are pulled at read time instead of being fanned out
+    private volatile Set<Long> fanOutOnReadAuthors = ConcurrentHashMap.newKeySet();
+
+    public HomeFeedService(
+            FeedEntryRepository feedEntryRepository,
+            FriendshipRepository friendshipRepository,
+            NewsfeedRepo newsfeedRepo,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.feedEntryRepository = feedEntryRepository;
+        this.friendshipRepository = friendshipRepository;
+        this.newsfeedRepo = newsfeedRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        // Listeners run after the publishing transaction committed, so they need their own
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Get one page of a user's home timeline (own and friends' posts), newest first
+     *
+     * @param viewerId the user whose timeline is read
+     * @param cursor nextCursor from the previous page, or null for the newest posts
+     * @param size requested page size (clamped to NewsfeedService.MAX_PAGE_SIZE)
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public TimelinePageDto getHomeTimeline(Long viewerId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, NewsfeedService.MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        TimelineCursor position = cursor == null || cursor.isBlank() ? null : TimelineCursor.decode(cursor);
+
+        List<PostViewDto> posts = position == null
+                ? feedEntryRepository.findHomeTimeline(viewerId, viewerId, limit)
+                : feedEntryRepository.findHomeTimelineBefore(
+                        viewerId, position.getPostDate(), position.getNewsfeedId(), viewerId, limit);
+
+        Set<Long> pulledAuthors = fanOutOnReadFriends(viewerId);
+        if (!pulledAuthors.isEmpty()) {
+            List<PostViewDto> pulled = position == null
+                    ? newsfeedRepo.findTimelineByAuthors(pulledAuthors, viewerId, limit)
+                    : newsfeedRepo.findTimelineByAuthorsBefore(
+                            pulledAuthors, position.getPostDate(), position.getNewsfeedId(), viewerId, limit);
+            posts = merge(posts, pulled);
+        }
+
+        boolean hasMore = posts.size() > pageSize;
+        if (hasMore) {
+            posts = posts.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? TimelineCursor.encode(posts.get(posts.size() - 1)) : null;
+
+        return new TimelinePageDto(new ArrayList<>(posts), hasMore, nextCursor);
+    }
+
+    /**
+     * Fan a new post out to the author's friends
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostCreated(PostCreatedEventDto event) {
+        Long authorId = event.getAuthorId();
+        Timestamp postDate = Timestamp.valueOf(event.getPostDate());
+
+        writeFeedEntries("fan-out of post " + event.getNewsfeedId(), () -> {
+            jdbcTemplate.update(INSERT_ENTRY, authorId, event.getNewsfeedId(), authorId);
+
+            if (friendshipRepository.countByUserId(authorId) > fanOutMaxFriends) {
+                fanOutOnReadAuthors.add(authorId);
+                return;
+            }
+            jdbcTemplate.update(FAN_OUT_TO_FRIENDS,
+                    authorId, event.getNewsfeedId(), authorId, postDate, authorId, authorId,
+                    event.getNewsfeedId(), authorId);
+        });
+    }
+
+    /**
+     * Copy recent posts into the new friends' timelines, or drop them when a friendship ends
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFriendshipChanged(FriendshipEventDto event) {
+        Long userId = event.getUserId();
+        Long friendId = event.getFriendId();
+
+        writeFeedEntries("friendship change " + userId + "/" + friendId, () -> {
+            if (event.isCreated()) {
+                Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(backfillDays));
+                if (!fanOutOnReadAuthors.contains(friendId)) {
+                    jdbcTemplate.update(BACKFILL_FROM_AUTHOR, userId, friendId, since, userId);
+                }
+                if (!fanOutOnReadAuthors.contains(userId)) {
+                    jdbcTemplate.update(BACKFILL_FROM_AUTHOR, friendId, userId, since, friendId);
+                }
+            } else {
+                feedEntryRepository.deleteByOwnerIdAndAuthorId(userId, friendId);
+                feedEntryRepository.deleteByOwnerIdAndAuthorId(friendId, userId);
+            }
+        });
+    }
+
+    /**
+     * Recompute which authors are fanned out on read (friend counts change over time).
+     * Authors who drop back under the limit get their recent posts copied to their friends first,
+     * since posts made while they were over it were never fanned out.
+     */
+    @Scheduled(fixedDelayString = "${app.feed.fan-out-refresh-ms:600000}")
+    public void refreshFanOutOnReadAuthors() {
+        Set<Long> authors = ConcurrentHashMap.newKeySet();
+        authors.addAll(jdbcTemplate.queryForList(FIND_FAN_OUT_ON_READ_AUTHORS, Long.class, fanOutMaxFriends));
+
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(backfillDays));
+        for (Long authorId : fanOutOnReadAuthors) {
+            if (!authors.contains(authorId)) {
+                writeFeedEntries("backfill of author " + authorId, () -> jdbcTemplate.update(
+                        BACKFILL_AUTHOR_TO_FRIENDS, authorId, authorId, authorId, authorId, since, authorId));
+            }
+        }
+        fanOutOnReadAuthors = authors;
+    }
+
+    // Listeners run after the caller's transaction committed, so a failure here must not reach the caller.
+    // A concurrent insert of the same entry can still hit the unique key; the retry then skips it.
+    private void writeFeedEntries(String description, Runnable writes) {
+        try {
+            writeTransaction.executeWithoutResult(status -> writes.run());
+        } catch (DataIntegrityViolationException e) {
+            try {
+                writeTransaction.executeWithoutResult(status -> writes.run());
+            } catch (RuntimeException retryFailure) {
+                logger.warn("Home feed {} failed after a retry", description, retryFailure);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Home feed {} failed", description, e);
+        }
+    }
+
+    private Set<Long> fanOutOnReadFriends(Long viewerId) {
+        Set<Long> authors = fanOutOnReadAuthors;
+        if (authors.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(friendshipRepository.findFriendIdsAmong(viewerId, authors));
+    }
+
+    // Merge two pages ordered by (postDate, newsfeedId) descending, dropping duplicates
+    private static List<PostViewDto> merge(List<PostViewDto> left, List<PostViewDto> right) {
+        List<PostViewDto> merged = new ArrayList<>(left.size() + right.size());
+        Set<Integer> seen = new HashSet<>();
+        int i = 0;
+        int j = 0;
+        while (i < left.size() || j < right.size()) {
+            PostViewDto next;
+            if (j >= right.size() || (i < left.size() && isNewer(left.get(i), right.get(j)))) {
+                next = left.get(i++);
+            } else {
+                next = right.get(j++);
+            }
+            if (seen.add(next.getNewsfeedId())) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    private static boolean isNewer(PostViewDto a, PostViewDto b) {
+        int byDate = a.getPostDate().compareTo(b.getPostDate());
+        return byDate != 0 ? byDate > 0 : a.getNewsfeedId() > b.getNewsfeedId();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.config.AuthenticatedUser;
+import edu.cit.commudev.config.ResourceVersionProvider;
+import edu.cit.commudev.repository.ConversationParticipantRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Version of the current user's conversation inbox
+ */
+@Component
+public class InboxVersionProvider implements ResourceVersionProvider {
+
+    private final ConversationParticipantRepository participantRepository;
+
+    public InboxVersionProvider(ConversationParticipantRepository participantRepository) {
+        this.participantRepository = participantRepository;
+    }
+
+    @Override
+    public String getVersion(HttpServletRequest request, Authentication authentication) {
+        Long userId = AuthenticatedUser.userIdOf(authentication);
+        if (userId == null) {
+            return null;
+        }
+
+        List<Object[]> rows = participantRepository.findInboxVersion(userId);
+        return rows.isEmpty() ? "empty" : Arrays.toString(rows.get(0));
+    }
+}
\ No newline at end of file
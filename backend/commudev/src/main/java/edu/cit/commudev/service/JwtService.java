@@ -1,7 +1,9 @@
 package edu.cit.commudev.service;
 
+import edu.cit.commudev.entity.Role;
 import edu.cit.commudev.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -14,6 +16,7 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -22,11 +25,39 @@ import java.util.function.Function;
  */
 @Service
 public class JwtService {
-    @Value("${security.jwt.secret-key}")
-    private String secretKey;
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
+    private final long jwtExpiration;
+    private final long refreshExpiration;
+
+    // Decoded once; both the key and the parser are immutable and thread-safe
+    private final Key signInKey;
+    private final JwtParser parser;
+
+    public JwtService(
+            @Value("${security.jwt.secret-key}") String secretKey,
+            @Value("${security.jwt.expiration-time}") long jwtExpiration,
+            @Value("${security.jwt.refresh-expiration-time:604800000}") long refreshExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.refreshExpiration = refreshExpiration;
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
 
-    @Value("${security.jwt.expiration-time}")
-    private long jwtExpiration;
+    /**
+     * Verify a token once and return its claims.
+     * The signature and expiry are checked by the parser, so callers should read
+     * everything they need from the returned claims instead of re-parsing the token.
+     *
+     * @param token JWT token
+     * @return verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is expired, malformed or badly signed
+     */
+    public Claims verify(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
 
     /**
      * Extract username from JWT token.
@@ -46,8 +77,7 @@ public class JwtService {
      * @return claim value
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
     }
 
     /**
@@ -75,15 +105,39 @@ public class JwtService {
 
             // Add email explicitly if using username for login
             extraClaims.put("email", user.getEmail());
+
+            // Roles let requests be authorized from the token alone
+            extraClaims.put("roles", user.getRoles().stream().map(Role::getName).toList());
         }
+        extraClaims.put(TOKEN_TYPE_CLAIM, ACCESS_TOKEN);
+
+        return buildToken(extraClaims, userDetails.getUsername(), jwtExpiration);
+    }
+
+    /**
+     * Generate a long-lived refresh token for a user.
+     * It can only be exchanged at /auth/refresh, never used to call the API.
+     *
+     * @param user the user
+     * @return refresh token
+     */
+    public String generateRefreshToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId());
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN);
+        return buildToken(claims, user.getUsername(), refreshExpiration);
+    }
 
+    private String buildToken(Map<String, Object> claims, String subject, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // jti, so the token can be revoked
+                .setSubject(subject)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -96,6 +150,15 @@ public class JwtService {
         return jwtExpiration;
     }
 
+    /**
+     * Get the refresh token expiration time in milliseconds.
+     *
+     * @return expiration time
+     */
+    public long getRefreshExpirationTime() {
+        return refreshExpiration;
+    }
+
     /**
      * Validate a JWT token.
      *
@@ -105,57 +168,11 @@ public class JwtService {
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+            // verify() already rejects expired tokens, so one parse covers both checks
+            return verify(token).getSubject().equals(userDetails.getUsername());
         } catch (Exception e) {
-            // Log the error and return false
-            System.out.println("Error validating token: " + e.getMessage());
+            // Rejections are logged by the authentication filter
             return false;
         }
     }
-
-    /**
-     * Check if a token is expired.
-     *
-     * @param token JWT token
-     * @return true if token is expired
-     */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extract expiration date from token.
-     *
-     * @param token JWT token
-     * @return expiration date
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    /**
-     * Extract all claims from a token.
-     *
-     * @param token JWT token
-     * @return claims
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Get signing key from secret.
-     *
-     * @return signing key
-     */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package edu.cit.commudev.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory sliding-window limit on failed logins, tracked separately per (email, client IP) pair
+ * and per client IP. A key is blocked once it has too many failures within the window, until the
+ * oldest of them falls out of it. The check runs before any password hashing, so a throttled login
+ * costs nothing.
+ *
+ * The email limit is keyed on the pair rather than on the email alone, so that failures from one
+ * address cannot lock the account's owner out from everywhere else.
+ */
+@Component
+public class LoginAttemptThrottle {
+    private static final String EMAIL_PREFIX = "email:";
+    private static final String EMAIL_IP_SEPARATOR = "|ip:";
+    private static final String IP_PREFIX = "ip:";
+
+    // key -> timestamps (epoch millis) of recent failures, oldest first
+    private final Map<String, Deque<Long>> failuresByKey = new ConcurrentHashMap<>();
+
+    @Value("${security.login.max-failures-per-email:5}")
+    private int maxFailuresPerEmail;
+
+    @Value("${security.login.max-failures-per-ip:20}")
+    private int maxFailuresPerIp;
+
+    @Value("${security.login.window-ms:900000}")
+    private long windowMillis;
+
+    @Value("${security.login.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    /**
+     * Check whether a login attempt may proceed
+     *
+     * @return 0 if allowed, otherwise the number of seconds until it would be
+     */
+    public long retryAfterSeconds(String email, String ip) {
+        long now = System.currentTimeMillis();
+        long waitMillis = Math.max(
+                waitMillis(emailKey(email, ip), maxFailuresPerEmail, now),
+                waitMillis(IP_PREFIX + ip, maxFailuresPerIp, now));
+        return waitMillis > 0 ? Math.max(1, (waitMillis + 999) / 1000) : 0;
+    }
+
+    /**
+     * Record a failed attempt against both the (email, IP) pair and the IP
+     */
+    public void recordFailure(String email, String ip) {
+        if (failuresByKey.size() >= maxTrackedKeys) {
+            sweepExpired();
+        }
+        long now = System.currentTimeMillis();
+        record(emailKey(email, ip), maxFailuresPerEmail, now);
+        record(IP_PREFIX + ip, maxFailuresPerIp, now);
+    }
+
+    /**
+     * Clear the failures of an email from this IP after a successful login
+     */
+    public void recordSuccess(String email, String ip) {
+        failuresByKey.remove(emailKey(email, ip));
+    }
+
+    /**
+     * Drop keys whose failures have all left the window
+     */
+    @Scheduled(fixedDelayString = "${security.login.sweep-ms:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        for (String key : failuresByKey.keySet()) {
+            // Per-key compute keeps the sweep atomic with a concurrent record()
+            failuresByKey.computeIfPresent(key, (k, failures) -> {
+                evictOld(failures, now);
+                return failures.isEmpty() ? null : failures;
+            });
+        }
+    }
+
+    private long waitMillis(String key, int maxFailures, long now) {
+        long[] wait = new long[1];
+        failuresByKey.computeIfPresent(key, (k, failures) -> {
+            evictOld(failures, now);
+            if (failures.size() >= maxFailures) {
+                // Blocked until the oldest failure counted against the limit leaves the window
+                wait[0] = failures.peekFirst() + windowMillis - now;
+            }
+            return failures.isEmpty() ? null : failures;
+        });
+        return wait[0];
+    }
+
+    private void record(String key, int maxFailures, long now) {
+        failuresByKey.compute(key, (k, failures) -> {
+            Deque<Long> updated = failures != null ? failures : new ArrayDeque<>();
+            evictOld(updated, now);
+            updated.addLast(now);
+            // Only the newest maxFailures timestamps matter for the decision
+            while (updated.size() > maxFailures) {
+                updated.pollFirst();
+            }
+            return updated;
+        });
+    }
+
+    private void evictOld(Deque<Long> failures, long now) {
+        long cutoff = now - windowMillis;
+        while (!failures.isEmpty() && failures.peekFirst() <= cutoff) {
+            failures.pollFirst();
+        }
+    }
+
+    private static String emailKey(String email, String ip) {
+        String normalized = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        return EMAIL_PREFIX + normalized + EMAIL_IP_SEPARATOR + ip;
+    }
+}
\ No newline at end of file
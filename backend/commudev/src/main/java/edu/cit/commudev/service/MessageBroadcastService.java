@@ -0,0 +1,54 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.MessageEventDto;
+import edu.cit.commudev.dto.TypingStatusDto;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+
+/**
+ * Pushes message events to connected STOMP clients once the change is committed.
+ */
+@Service
+public class MessageBroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ConversationAccessCache accessCache;
+
+    public MessageBroadcastService(
+            SimpMessagingTemplate messagingTemplate,
+            ConversationAccessCache accessCache) {
+        this.messagingTemplate = messagingTemplate;
+        this.accessCache = accessCache;
+    }
+
+    /**
+     * Broadcast a message event to the conversation topic and to each participant's queue
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageEvent(MessageEventDto event) {
+        Long conversationId = event.getConversationId();
+
+        // Clients viewing the conversation
+        messagingTemplate.convertAndSend("/topic/conversations/" + conversationId, event);
+
+        // Every participant, so inbox views can update without subscribing to each conversation
+        Set<Long> participantIds = accessCache.getParticipantIds(conversationId);
+        for (Long userId : participantIds) {
+            messagingTemplate.convertAndSendToUser(String.valueOf(userId), "/queue/messages", event);
+        }
+    }
+
+    /**
+     * Broadcast typing indicator changes to clients viewing the conversation
+     */
+    @EventListener
+    public void onTypingEvent(TypingStatusDto event) {
+        messagingTemplate.convertAndSend(
+                "/topic/conversations/" + event.getConversationId() + "/typing", event);
+    }
+}
\ No newline at end of file
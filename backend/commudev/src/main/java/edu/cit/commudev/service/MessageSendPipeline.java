@@ -0,0 +1,281 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.MessageDto;
+import edu.cit.commudev.dto.MessageEventDto;
+import edu.cit.commudev.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write path for chat messages under bursts.
+ * Sends are appended to a bounded queue and a single writer persists them in small batches:
+ * one JDBC batch insert for the messages, one unread-counter update per conversation and sender,
+ * and one last-message update per conversation (group commit).
+ *
+ * Acknowledgement is at-least-once: the returned future completes only after the batch has
+ * committed, and fails if the queue is full or the write failed. A client that does not receive
+ * an acknowledgement should retry, which may produce a duplicate if the original did commit.
+ *
+ * Message events are published on the writer thread after the futures are completed; a listener
+ * that fails is logged and does not affect the acknowledgement or the writer.
+ */
+@Service
+public class MessageSendPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(MessageSendPipeline.class);
+
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO messages (conversation_id, sender_id, text, is_read, is_edited, timestamp) " +
+            "VALUES (?, ?, ?, false, false, ?)";
+
+    private static final String INCREMENT_UNREAD =
+            "UPDATE conversation_participants SET unread_count = unread_count + ? " +
+            "WHERE conversation_id = ? AND user_id <> ?";
+
+    private static final String UPDATE_CONVERSATION =
+            "UPDATE conversations SET last_message = ?, last_sender_id = ?, last_updated = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.messaging.send-queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.messaging.send-batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.messaging.send-linger-ms:5}")
+    private long lingerMillis;
+
+    private BlockingQueue<PendingMessage> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    public MessageSendPipeline(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drainLoop, "message-send-pipeline");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Queue a message for persistence.
+     * The caller must already have checked that the sender participates in the conversation.
+     *
+     * @return future completed with the stored message once it is committed
+     */
+    public CompletableFuture<MessageDto> submit(Long conversationId, User sender, String text) {
+        PendingMessage pending = new PendingMessage(conversationId, sender, text, LocalDateTime.now());
+        if (!running || !queue.offer(pending)) {
+            pending.future.completeExceptionally(new RejectedExecutionException("Message queue is full"));
+        }
+        return pending.future;
+    }
+
+    private void drainLoop() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Linger briefly so a burst lands in one batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingMessage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: flush what is already queued, then exit
+                queue.drainTo(batch);
+                writeBatch(batch);
+                break;
+            } catch (RuntimeException e) {
+                // Keep the only writer alive; whatever in the batch was not acknowledged yet fails
+                logger.error("Message send batch failed", e);
+                for (PendingMessage pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingMessage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+            // Isolate the failing message so the rest of the batch still gets stored
+            for (PendingMessage pending : batch) {
+                writeBatch(List.of(pending));
+            }
+            return;
+        }
+
+        // Acknowledge the whole batch before any listener runs: the messages are committed either way
+        List<MessageDto> stored = new ArrayList<>(batch.size());
+        for (PendingMessage pending : batch) {
+            MessageDto dto = toMessageDto(pending);
+            stored.add(dto);
+            pending.future.complete(dto);
+        }
+        for (MessageDto dto : stored) {
+            try {
+                eventPublisher.publishEvent(new MessageEventDto(
+                        MessageEventDto.MESSAGE_CREATED, dto.getConversationId(), dto.getId(), dto));
+            } catch (RuntimeException e) {
+                logger.warn("Publishing message {} created event failed", dto.getId(), e);
+            }
+        }
+    }
+
+    private void persist(List<PendingMessage> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_MESSAGE, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingMessage pending = batch.get(i);
+                        ps.setLong(1, pending.conversationId);
+                        ps.setLong(2, pending.sender.getId());
+                        ps.setString(3, pending.text);
+                        ps.setTimestamp(4, Timestamp.valueOf(pending.timestamp));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).id = ((Number) keys.get(i).values().iterator().next()).longValue();
+        }
+
+        // Coalesce per conversation: the latest message wins, unread counts are summed per sender
+        Map<Long, PendingMessage> lastByConversation = new LinkedHashMap<>();
+        Map<List<Long>, Integer> unreadIncrements = new LinkedHashMap<>();
+        for (PendingMessage pending : batch) {
+            lastByConversation.put(pending.conversationId, pending);
+            unreadIncrements.merge(List.of(pending.conversationId, pending.sender.getId()), 1, Integer::sum);
+        }
+
+        List<Object[]> unreadArgs = new ArrayList<>();
+        unreadIncrements.forEach((key, count) -> unreadArgs.add(new Object[] {count, key.get(0), key.get(1)}));
+        jdbcTemplate.batchUpdate(INCREMENT_UNREAD, unreadArgs);
+
+        List<Object[]> conversationArgs = new ArrayList<>();
+        for (PendingMessage last : lastByConversation.values()) {
+            conversationArgs.add(new Object[] {
+                    last.text, last.sender.getId(), Timestamp.valueOf(last.timestamp), last.conversationId});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_CONVERSATION, conversationArgs);
+    }
+
+    private MessageDto toMessageDto(PendingMessage pending) {
+        User sender = pending.sender;
+
+        // Format sender name
+        String senderName;
+        if (sender.getFirstname() != null && sender.getLastname() != null) {
+            senderName = sender.getFirstname() + " " + sender.getLastname();
+        } else if (sender.getFirstname() != null) {
+            senderName = sender.getFirstname();
+        } else {
+            senderName = sender.getUsername();
+        }
+
+        MessageDto dto = new MessageDto();
+        dto.setId(pending.id);
+        dto.setConversationId(pending.conversationId);
+        dto.setSenderId(sender.getId());
+        dto.setSenderName(senderName);
+        dto.setSenderUsername(sender.getUsername());
+        dto.setSenderAvatar(sender.getProfilePicture());
+        dto.setText(pending.text);
+        dto.setRead(false);
+        dto.setEdited(false);
+        dto.setTimestamp(pending.timestamp);
+        return dto;
+    }
+
+    private static class PendingMessage {
+        private final Long conversationId;
+        private final User sender;
+        private final String text;
+        private final LocalDateTime timestamp;
+        private final CompletableFuture<MessageDto> future = new CompletableFuture<>();
+        private Long id;
+
+        PendingMessage(Long conversationId, User sender, String text, LocalDateTime timestamp) {
+            this.conversationId = conversationId;
+            this.sender = sender;
+            this.text = text;
+            this.timestamp = timestamp;
+        }
+    }
+}
\ No newline at end of file
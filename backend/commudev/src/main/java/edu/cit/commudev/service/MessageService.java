@@ -2,6 +2,8 @@ package edu.cit.commudev.service;
 
 import edu.cit.commudev.dto.ConversationDto;
 import edu.cit.commudev.dto.MessageDto;
+import edu.cit.commudev.dto.MessageEventDto;
+import edu.cit.commudev.dto.MessagePageDto;
 import edu.cit.commudev.entity.Conversation;
 import edu.cit.commudev.entity.ConversationParticipant;
 import edu.cit.commudev.entity.Message;
@@ -12,24 +14,50 @@ import edu.cit.commudev.repository.ConversationRepository;
 import edu.cit.commudev.repository.MessageRepository;
 import edu.cit.commudev.repository.TypingStatusRepository;
 import edu.cit.commudev.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class MessageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final ConversationRepository conversationRepository;
     private final ConversationParticipantRepository participantRepository;
     private final MessageRepository messageRepository;
     private final TypingStatusRepository typingStatusRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConversationAccessCache accessCache;
+    private final TypingIndicatorService typingIndicatorService;
+    private final TransactionTemplate requiresNewTransaction;
+
+    // "memory" keeps typing indicators in process; "database" uses the legacy typing_status table
+    @Value("${app.messaging.typing-store:memory}")
+    private String typingStore;
 
     @Autowired
     public MessageService(
@@ -37,97 +65,56 @@ public class MessageService {
             ConversationParticipantRepository participantRepository,
             MessageRepository messageRepository,
             TypingStatusRepository typingStatusRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            ConversationAccessCache accessCache,
+            TypingIndicatorService typingIndicatorService,
+            PlatformTransactionManager transactionManager) {
         this.conversationRepository = conversationRepository;
         this.participantRepository = participantRepository;
         this.messageRepository = messageRepository;
         this.typingStatusRepository = typingStatusRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.accessCache = accessCache;
+        this.typingIndicatorService = typingIndicatorService;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     /**
-     * Get all conversations for a user
+     * Get all conversations for a user.
+     * The inbox is built by a single projection query, independent of how many conversations there are.
      */
     @Transactional(readOnly = true)
     public List<ConversationDto> getUserConversations(Long userId) {
-        List<Conversation> conversations = conversationRepository.findByParticipantId(userId);
-        
-        return conversations.stream()
-                .map(conversation -> {
-                    // Find the other participant (for 1-1 conversations)
-                    ConversationParticipant otherParticipant = conversation.getParticipants().stream()
-                            .filter(p -> !p.getUser().getId().equals(userId))
-                            .findFirst()
-                            .orElse(null);
-                    
-                    ConversationDto dto = new ConversationDto();
-                    dto.setId(conversation.getId());
-                    dto.setLastMessage(conversation.getLastMessage());
-                    dto.setLastSenderId(conversation.getLastSenderId());
-                    dto.setLastUpdated(conversation.getLastUpdated());
-                    dto.setCreatedAt(conversation.getCreatedAt());
-                    
-                    // Set other user info
-                    if (otherParticipant != null) {
-                        User otherUser = otherParticipant.getUser();
-                        dto.setOtherUserId(otherUser.getId());
-                        
-                        // Format name based on available fields
-                        String otherUserName = "";
-                        if (otherUser.getFirstname() != null && otherUser.getLastname() != null) {
-                            otherUserName = otherUser.getFirstname() + " " + otherUser.getLastname();
-                        } else if (otherUser.getFirstname() != null) {
-                            otherUserName = otherUser.getFirstname();
-                        } else {
-                            otherUserName = otherUser.getUsername();
-                        }
-                        
-                        dto.setOtherUserName(otherUserName);
-                        dto.setOtherUserAvatar(otherUser.getProfilePicture());
-                        dto.setOtherUsername(otherUser.getUsername());
-                    }
-                    
-                    // Get unread count
-                    int unreadCount = messageRepository.countUnreadMessages(conversation.getId(), userId);
-                    dto.setUnreadCount(unreadCount);
-                    
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return conversationRepository.findInboxByUserId(userId);
     }
 
     /**
-     * Get or create a conversation between two users
+     * Get or create a conversation between two users.
+     * Not transactional on purpose: every step runs in its own short transaction, so a row
+     * committed by our own insert (or by a concurrent request) is visible to the next step even
+     * under REPEATABLE READ, and only one pooled connection is held at a time.
      */
-    @Transactional
     public ConversationDto getOrCreateConversation(Long userId1, Long userId2) {
-        // Check if a conversation already exists
-        Optional<Conversation> existingConversation = 
-                conversationRepository.findConversationBetweenUsers(userId1, userId2);
+        String directKey = Conversation.directKeyFor(userId1, userId2);
         
-        Conversation conversation;
-        
-        if (existingConversation.isPresent()) {
-            conversation = existingConversation.get();
-        } else {
-            // Create a new conversation
-            conversation = new Conversation();
-            
-            // Get user objects
-            User user1 = userRepository.findById(userId1)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + userId1));
-            
-            User user2 = userRepository.findById(userId2)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + userId2));
-            
-            // Add participants
-            conversation.addParticipant(user1);
-            conversation.addParticipant(user2);
-            
-            // Save the conversation
-            conversation = conversationRepository.save(conversation);
+        // Point read on the unique direct key
+        Long conversationId = requiresNewTransaction.execute(status ->
+                conversationRepository.findByDirectKey(directKey).map(Conversation::getId).orElse(null));
+        if (conversationId == null) {
+            conversationId = findOrCreateDirectConversation(directKey, userId1, userId2);
         }
         
+        Long id = conversationId;
+        return requiresNewTransaction.execute(status -> toDirectConversationDto(
+                conversationRepository.findById(id)
+                        .orElseThrow(() -> new RuntimeException("Conversation not found: " + id)),
+                userId1));
+    }
+
+    private ConversationDto toDirectConversationDto(Conversation conversation, Long userId1) {
         // Convert to DTO
         ConversationDto dto = new ConversationDto();
         dto.setId(conversation.getId());
@@ -163,19 +150,74 @@ public class MessageService {
             dto.setOtherUsername(otherUser.getUsername());
         }
         
-        // Get unread count
-        int unreadCount = messageRepository.countUnreadMessages(conversation.getId(), userId1);
-        dto.setUnreadCount(unreadCount);
+        // Get unread count from the participant's counter
+        for (ConversationParticipant participant : conversation.getParticipants()) {
+            if (participant.getUser().getId().equals(userId1)) {
+                dto.setUnreadCount(participant.getUnreadCount());
+                break;
+            }
+        }
         
         return dto;
     }
 
+    /**
+     * Resolve a 1:1 conversation that is not yet indexed by its direct key.
+     * Older conversations get their key backfilled; otherwise a new one is inserted, and losing a
+     * race on the unique key simply means reading the winner's row in a fresh transaction.
+     *
+     * @return the conversation ID
+     */
+    private Long findOrCreateDirectConversation(String directKey, Long userId1, Long userId2) {
+        List<Long> legacy = requiresNewTransaction.execute(status ->
+                conversationRepository.findConversationsBetweenUsers(userId1, userId2).stream()
+                        .map(Conversation::getId)
+                        .collect(Collectors.toList()));
+        if (!legacy.isEmpty()) {
+            // Keep the oldest one if duplicates were created before the key existed
+            Long conversationId = legacy.get(0);
+            try {
+                requiresNewTransaction.executeWithoutResult(status ->
+                        conversationRepository.findById(conversationId)
+                                .ifPresent(c -> c.setDirectKey(directKey)));
+                return conversationId;
+            } catch (DataIntegrityViolationException e) {
+                // Another request backfilled or created the key first
+                return findIdByDirectKey(directKey).orElse(conversationId);
+            }
+        }
+        
+        try {
+            return requiresNewTransaction.execute(status -> {
+                User user1 = userRepository.findById(userId1)
+                        .orElseThrow(() -> new RuntimeException("User not found: " + userId1));
+                User user2 = userRepository.findById(userId2)
+                        .orElseThrow(() -> new RuntimeException("User not found: " + userId2));
+                
+                Conversation conversation = new Conversation();
+                conversation.setDirectKey(directKey);
+                conversation.addParticipant(user1);
+                conversation.addParticipant(user2);
+                return conversationRepository.saveAndFlush(conversation).getId();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request created the conversation first
+            return findIdByDirectKey(directKey).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<Long> findIdByDirectKey(String directKey) {
+        return requiresNewTransaction.execute(status ->
+                conversationRepository.findByDirectKey(directKey).map(Conversation::getId));
+    }
+
     /**
      * Get messages for a conversation
      */
     @Transactional(readOnly = true)
     public List<MessageDto> getConversationMessages(Long conversationId) {
         List<Message> messages = messageRepository.findByConversationIdOrderByTimestampAsc(conversationId);
+        Map<Long, Long> watermarks = getReadWatermarks(conversationId);
         
         return messages.stream()
                 .map(message -> {
@@ -199,7 +241,7 @@ public class MessageService {
                     dto.setSenderUsername(sender.getUsername());
                     dto.setSenderAvatar(sender.getProfilePicture());
                     dto.setText(message.getText());
-                    dto.setRead(message.isRead());
+                    dto.setRead(isReadByRecipient(message, watermarks));
                     dto.setEdited(message.isEdited());
                     dto.setTimestamp(message.getTimestamp());
                     dto.setEditedAt(message.getEditedAt());
@@ -209,6 +251,48 @@ public class MessageService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of messages for a conversation using message ID cursors.
+     * With "after" only messages newer than that ID are returned (oldest first), which is
+     * what a polling client needs. With "before" (or no cursor) the page ending just before
+     * that ID (or at the latest message) is returned.
+     */
+    @Transactional(readOnly = true)
+    public MessagePageDto getMessagePage(Long conversationId, Long beforeId, Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<Message> messages;
+        if (afterId != null) {
+            messages = messageRepository.findAfter(conversationId, afterId, limit);
+        } else if (beforeId != null) {
+            messages = messageRepository.findBefore(conversationId, beforeId, limit);
+        } else {
+            messages = messageRepository.findLatest(conversationId, limit);
+        }
+        
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) {
+            messages = messages.subList(0, pageSize);
+        }
+        
+        Map<Long, Long> watermarks = getReadWatermarks(conversationId);
+        List<MessageDto> dtos = messages.stream()
+                .map(message -> toMessageDto(message, watermarks))
+                .collect(Collectors.toCollection(ArrayList::new));
+        
+        // Backward pages are read newest first; always return oldest first
+        if (afterId == null) {
+            Collections.reverse(dtos);
+        }
+        
+        Long oldestId = dtos.isEmpty() ? null : dtos.get(0).getId();
+        Long newestId = dtos.isEmpty() ? null : dtos.get(dtos.size() - 1).getId();
+        
+        return new MessagePageDto(dtos, hasMore, oldestId, newestId);
+    }
+
     /**
      * Send a message in a conversation
      */
@@ -235,6 +319,9 @@ public class MessageService {
         conversationRepository.save(conversation);
         message = messageRepository.save(message);
         
+        // Bump every other participant's unread counter in place
+        participantRepository.incrementUnreadCount(conversationId, sender.getId());
+        
         // Convert back to DTO
         MessageDto resultDto = new MessageDto();
         resultDto.setId(message.getId());
@@ -259,26 +346,54 @@ public class MessageService {
         resultDto.setEdited(message.isEdited());
         resultDto.setTimestamp(message.getTimestamp());
         
+        // Push to connected clients once the transaction commits
+        eventPublisher.publishEvent(new MessageEventDto(
+                MessageEventDto.MESSAGE_CREATED, conversationId, resultDto.getId(), resultDto));
+        
         return resultDto;
     }
 
     /**
-     * Mark messages as read
+     * Total unread messages across all of a user's conversations
+     */
+    @Transactional(readOnly = true)
+    public long getUnreadMessageCount(Long userId) {
+        return participantRepository.sumUnreadCountByUserId(userId);
+    }
+
+    /**
+     * Periodically rebuild unread counters from the messages table to repair any drift.
+     * The first run comes shortly after startup, so rows created before the counters existed
+     * (all zero) are filled in right after a deploy instead of an hour later.
+     */
+    @Scheduled(fixedDelayString = "${app.messaging.unread-reconcile-ms:3600000}",
+               initialDelayString = "${app.messaging.unread-reconcile-initial-delay-ms:30000}")
+    @Transactional
+    public void reconcileUnreadCounts() {
+        int repaired = participantRepository.reconcileUnreadCounts();
+        if (repaired > 0) {
+            logger.info("Reconciled unread counters for {} conversation participants", repaired);
+        }
+    }
+
+    /**
+     * Mark every message in the conversation as read for a user
      */
     @Transactional
     public void markMessagesAsRead(Long conversationId, Long userId) {
-        // Find all unread messages in this conversation not sent by current user
-        List<Message> unreadMessages = messageRepository.findByConversationIdOrderByTimestampAsc(conversationId)
-                .stream()
-                .filter(m -> !m.isRead() && !m.getSender().getId().equals(userId))
-                .collect(Collectors.toList());
-        
-        // Mark them as read
-        for (Message message : unreadMessages) {
-            message.setRead(true);
+        participantRepository.advanceReadWatermarkToLatest(conversationId, userId);
+    }
+
+    /**
+     * Mark messages up to and including the given message as read for a user.
+     * A single conditional UPDATE that only ever moves the watermark forward.
+     */
+    @Transactional
+    public void markMessagesAsRead(Long conversationId, Long userId, Long upToMessageId) {
+        if (upToMessageId == null) {
+            return;
         }
-        
-        messageRepository.saveAll(unreadMessages);
+        participantRepository.advanceReadWatermark(conversationId, userId, upToMessageId);
     }
 
     /**
@@ -301,6 +416,8 @@ public class MessageService {
             conversation.getLastSenderId().equals(message.getSender().getId())) {
             
             conversation.setLastMessage(newText);
+            // Touch lastUpdated so the inbox version changes with the preview
+            conversation.setLastUpdated(LocalDateTime.now());
             conversationRepository.save(conversation);
         }
         
@@ -327,11 +444,14 @@ public class MessageService {
         dto.setSenderUsername(sender.getUsername());
         dto.setSenderAvatar(sender.getProfilePicture());
         dto.setText(message.getText());
-        dto.setRead(message.isRead());
+        dto.setRead(isReadByRecipient(message, getReadWatermarks(conversation.getId())));
         dto.setEdited(message.isEdited());
         dto.setTimestamp(message.getTimestamp());
         dto.setEditedAt(message.getEditedAt());
         
+        eventPublisher.publishEvent(new MessageEventDto(
+                MessageEventDto.MESSAGE_UPDATED, dto.getConversationId(), dto.getId(), dto));
+        
         return dto;
     }
 
@@ -357,6 +477,10 @@ public class MessageService {
         // Delete the message
         messageRepository.delete(message);
         
+        if (!message.isRead()) {
+            participantRepository.decrementUnreadCount(conversation.getId(), message.getSender().getId(), messageId);
+        }
+        
         // If this was the last message, update the conversation's last message info
         if (isLastMessage) {
             // Find the new last message
@@ -376,6 +500,9 @@ public class MessageService {
             conversation.setLastUpdated(LocalDateTime.now());
             conversationRepository.save(conversation);
         }
+        
+        eventPublisher.publishEvent(new MessageEventDto(
+                MessageEventDto.MESSAGE_DELETED, conversation.getId(), messageId, null));
     }
 
     /**
@@ -383,6 +510,10 @@ public class MessageService {
      */
     @Transactional(readOnly = true)
     public List<Long> getTypingUsers(Long conversationId) {
+        if (!useDatabaseTypingStore()) {
+            return typingIndicatorService.getTypingUsers(conversationId);
+        }
+        
         List<TypingStatus> typingStatuses = typingStatusRepository.findByConversationIdAndTypingTrue(conversationId);
         
         // Filter out stale typing indicators (older than 5 seconds)
@@ -399,6 +530,12 @@ public class MessageService {
      */
     @Transactional
     public void updateTypingStatus(Long conversationId, Long userId, Boolean isTyping) {
+        if (!useDatabaseTypingStore()) {
+            // Access was already checked by the caller, so no lookups are needed here
+            typingIndicatorService.setTyping(conversationId, userId, Boolean.TRUE.equals(isTyping));
+            return;
+        }
+        
         Conversation conversation = conversationRepository.findById(conversationId)
                 .orElseThrow(() -> new RuntimeException("Conversation not found: " + conversationId));
         
@@ -438,6 +575,9 @@ public void deleteConversation(Long conversationId) {
     
     // Then, delete the conversation (cascade will handle messages and participants)
     conversationRepository.delete(conversation);
+    
+    accessCache.evict(conversationId);
+    typingIndicatorService.clearConversation(conversationId);
 }
 
     /**
@@ -445,7 +585,7 @@ public void deleteConversation(Long conversationId) {
      */
     @Transactional(readOnly = true)
     public boolean userHasAccessToConversation(Long userId, Long conversationId) {
-        return participantRepository.existsByConversationIdAndUserId(conversationId, userId);
+        return accessCache.isParticipant(conversationId, userId);
     }
 
     /**
@@ -461,4 +601,66 @@ public void deleteConversation(Long conversationId) {
         
         return false;
     }
+
+    private MessageDto toMessageDto(Message message, Map<Long, Long> watermarks) {
+        MessageDto dto = new MessageDto();
+        dto.setId(message.getId());
+        dto.setConversationId(message.getConversation().getId());
+        dto.setSenderId(message.getSender().getId());
+        
+        // Format sender name
+        User sender = message.getSender();
+        String senderName = "";
+        if (sender.getFirstname() != null && sender.getLastname() != null) {
+            senderName = sender.getFirstname() + " " + sender.getLastname();
+        } else if (sender.getFirstname() != null) {
+            senderName = sender.getFirstname();
+        } else {
+            senderName = sender.getUsername();
+        }
+        
+        dto.setSenderName(senderName);
+        dto.setSenderUsername(sender.getUsername());
+        dto.setSenderAvatar(sender.getProfilePicture());
+        dto.setText(message.getText());
+        dto.setRead(isReadByRecipient(message, watermarks));
+        dto.setEdited(message.isEdited());
+        dto.setTimestamp(message.getTimestamp());
+        dto.setEditedAt(message.getEditedAt());
+        
+        return dto;
+    }
+
+    /**
+     * Read watermark of each participant, keyed by user ID
+     */
+    private Map<Long, Long> getReadWatermarks(Long conversationId) {
+        Map<Long, Long> watermarks = new HashMap<>();
+        for (Object[] row : participantRepository.findReadWatermarks(conversationId)) {
+            watermarks.put((Long) row[0], (Long) row[1]);
+        }
+        return watermarks;
+    }
+
+    /**
+     * A message counts as read once any other participant's watermark has reached it
+     */
+    private boolean isReadByRecipient(Message message, Map<Long, Long> watermarks) {
+        if (message.isRead()) {
+            return true;
+        }
+        
+        Long senderId = message.getSender().getId();
+        for (Map.Entry<Long, Long> entry : watermarks.entrySet()) {
+            if (!entry.getKey().equals(senderId) && entry.getValue() != null
+                    && entry.getValue() >= message.getId()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean useDatabaseTypingStore() {
+        return "database".equalsIgnoreCase(typingStore);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package edu.cit.commudev.service;
 
+import edu.cit.commudev.dto.NotificationEventDto;
 import edu.cit.commudev.entity.CommentEntity;
 import edu.cit.commudev.entity.FriendRequest;
 import edu.cit.commudev.entity.NewsfeedEntity;
@@ -7,6 +8,7 @@ import edu.cit.commudev.entity.NotificationEntity;
 import edu.cit.commudev.entity.User;
 import edu.cit.commudev.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +23,9 @@ public class NotificationService {
     
     @Autowired
     private UserService userService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all notifications for the current user (newest first)
@@ -112,7 +117,7 @@ public class NotificationService {
             notification.setRelatedPostId(post.getNewsfeedId());
             notification.setRelatedCommentId(comment.getCommentId());
             
-            notificationRepository.save(notification);
+            saveAndPublish(notification);
         }
     }
     
@@ -138,7 +143,7 @@ public class NotificationService {
             
             notification.setRelatedPostId(post.getNewsfeedId());
             
-            notificationRepository.save(notification);
+            saveAndPublish(notification);
         }
     }
     
@@ -181,7 +186,7 @@ public void createFriendRequestNotification(FriendRequest friendRequest) {
             actor
     );
     
-    notificationRepository.save(notification);
+    saveAndPublish(notification);
 }
 
 /**
@@ -202,6 +207,14 @@ public void createFriendRequestAcceptedNotification(FriendRequest friendRequest)
             actor
     );
     
-    notificationRepository.save(notification);
+    saveAndPublish(notification);
 }
+
+    /**
+     * Save a new notification and announce it to waiting clients once committed
+     */
+    private void saveAndPublish(NotificationEntity notification) {
+        NotificationEntity saved = notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationEventDto(saved.getUser().getId(), saved.getNotificationId()));
+    }
 }
\ No newline at end of file
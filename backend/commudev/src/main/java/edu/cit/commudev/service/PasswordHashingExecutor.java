@@ -0,0 +1,75 @@
+package edu.cit.commudev.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, bounded pool for password hashing and verification.
+ * BCrypt is deliberately slow, so running it on request threads lets a login storm occupy
+ * the whole Tomcat pool. Here at most {@code threads} hashes run at once and at most
+ * {@code queueCapacity} wait; anything beyond that is rejected immediately with
+ * RejectedExecutionException so the caller can answer 503 instead of queueing forever.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public PasswordHashingExecutor(
+            @Value("${security.password.hashing-threads:0}") int threads,
+            @Value("${security.password.hashing-queue:64}") int queueCapacity,
+            @Value("${security.password.hashing-timeout-ms:10000}") long timeoutMillis) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run a hashing task on the pool and wait for its result.
+     * Runtime exceptions thrown by the task (e.g. BadCredentialsException) are rethrown as-is.
+     *
+     * @throws RejectedExecutionException if the pool is saturated or the task timed out
+     */
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future = executor.submit(task::get);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new RejectedExecutionException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing");
+        }
+    }
+}
\ No newline at end of file
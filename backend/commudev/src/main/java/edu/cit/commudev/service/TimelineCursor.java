@@ -0,0 +1,49 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.PostViewDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque timeline position: the (post_date, newsfeed_id) of the last post on a page.
+ * Shared by the global and home timelines, which are both ordered on that pair.
+ */
+class TimelineCursor {
+    private final LocalDateTime postDate;
+    private final int newsfeedId;
+
+    private TimelineCursor(LocalDateTime postDate, int newsfeedId) {
+        this.postDate = postDate;
+        this.newsfeedId = newsfeedId;
+    }
+
+    LocalDateTime getPostDate() {
+        return postDate;
+    }
+
+    int getNewsfeedId() {
+        return newsfeedId;
+    }
+
+    static String encode(PostViewDto post) {
+        String value = post.getPostDate() + "|" + post.getNewsfeedId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static TimelineCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new TimelineCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Integer.parseInt(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid timeline cursor");
+        }
+    }
+}
\ No newline at end of file
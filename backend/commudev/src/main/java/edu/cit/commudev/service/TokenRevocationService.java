@@ -0,0 +1,134 @@
+package edu.cit.commudev.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory revocation list for token IDs (the jti claim).
+ * Every authenticated request asks isRevoked, so the check is lock-free and allocation-free:
+ * a Bloom filter answers "definitely not revoked" for almost all tokens, and only possible hits
+ * fall through to the exact map. Entries are kept until the revoked token would have expired
+ * anyway and are pruned on a schedule, which also rebuilds the filter.
+ *
+ * The list is per instance and does not survive a restart; a lost revocation matters until the
+ * token expires (security.jwt.expiration-time for access tokens), and refresh tokens are rotated.
+ */
+@Service
+public class TokenRevocationService {
+    private static final int HASHES = 3;
+
+    // jti -> expiry of the revoked token in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private final int filterBits;
+    private volatile AtomicLongArray filter;
+
+    public TokenRevocationService(@Value("${security.jwt.revocation-filter-bits:1048576}") int filterBits) {
+        // Round up to a power of two so bit positions can be masked instead of divided
+        this.filterBits = Integer.highestOneBit(Math.max(64, filterBits - 1) << 1);
+        this.filter = new AtomicLongArray(this.filterBits / 64);
+    }
+
+    /**
+     * Check whether a token ID has been revoked
+     *
+     * @param tokenId the jti claim (tokens without one cannot be revoked)
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !mightContain(filter, tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * Revoke a token until it expires
+     *
+     * @param tokenId the jti claim
+     * @param expiresAt token expiry in epoch millis
+     * @return true if this call revoked the token, false if it was already revoked or has expired
+     */
+    public boolean revoke(String tokenId, long expiresAt) {
+        if (tokenId == null || expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        synchronized (writeLock) {
+            if (revoked.putIfAbsent(tokenId, expiresAt) != null) {
+                return false;
+            }
+            add(filter, tokenId);
+            return true;
+        }
+    }
+
+    /**
+     * Drop revocations of tokens that have expired and rebuild the filter from the rest,
+     * so the false-positive rate does not creep up over time
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-prune-ms:60000}")
+    public void pruneExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (writeLock) {
+            Iterator<Long> it = revoked.values().iterator();
+            while (it.hasNext()) {
+                if (it.next() <= now) {
+                    it.remove();
+                }
+            }
+
+            AtomicLongArray rebuilt = new AtomicLongArray(filterBits / 64);
+            revoked.keySet().forEach(tokenId -> add(rebuilt, tokenId));
+            filter = rebuilt;
+        }
+    }
+
+    /**
+     * Get the number of revocations currently held
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    private boolean mightContain(AtomicLongArray bits, String tokenId) {
+        int h1 = tokenId.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & (filterBits - 1);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(AtomicLongArray bits, String tokenId) {
+        int h1 = tokenId.hashCode();
+        int h2 = mix(h1);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & (filterBits - 1);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    // Second, independent hash for double hashing (finalizer from MurmurHash3)
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h | 1;
+    }
+}
\ No newline at end of file
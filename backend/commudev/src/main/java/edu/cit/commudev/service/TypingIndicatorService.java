@@ -0,0 +1,122 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.TypingStatusDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ephemeral, in-process typing indicators.
+ * State is keyed by (conversationId, userId) and expires after a short TTL,
+ * so reading or updating typing status never touches the database.
+ */
+@Service
+public class TypingIndicatorService {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // conversationId -> (userId -> expiry time in epoch millis)
+    private final Map<Long, Map<Long, Long>> typingByConversation = new ConcurrentHashMap<>();
+
+    @Value("${app.messaging.typing-ttl-ms:5000}")
+    private long ttlMillis;
+
+    public TypingIndicatorService(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Record that a user started or stopped typing.
+     * A change of state is published as a TypingStatusDto event for fan-out.
+     */
+    public void setTyping(Long conversationId, Long userId, boolean typing) {
+        boolean changed;
+
+        if (typing) {
+            long expiresAt = System.currentTimeMillis() + ttlMillis;
+            Long[] previous = new Long[1];
+            // Insert under the conversation's bin lock, so removeIfEmpty cannot drop the map in between
+            typingByConversation.compute(conversationId, (id, typingUsers) -> {
+                Map<Long, Long> users = typingUsers != null ? typingUsers : new ConcurrentHashMap<>();
+                previous[0] = users.put(userId, expiresAt);
+                return users;
+            });
+            changed = previous[0] == null || previous[0] < System.currentTimeMillis();
+        } else {
+            Map<Long, Long> typingUsers = typingByConversation.get(conversationId);
+            Long previous = typingUsers != null ? typingUsers.remove(userId) : null;
+            changed = previous != null && previous >= System.currentTimeMillis();
+            if (typingUsers != null) {
+                removeIfEmpty(conversationId);
+            }
+        }
+
+        if (changed) {
+            eventPublisher.publishEvent(new TypingStatusDto(conversationId, userId, typing));
+        }
+    }
+
+    /**
+     * Get the users currently typing in a conversation
+     */
+    public List<Long> getTypingUsers(Long conversationId) {
+        Map<Long, Long> typingUsers = typingByConversation.get(conversationId);
+        List<Long> result = new ArrayList<>();
+        if (typingUsers == null) {
+            return result;
+        }
+
+        long now = System.currentTimeMillis();
+        typingUsers.forEach((userId, expiresAt) -> {
+            if (expiresAt >= now) {
+                result.add(userId);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Drop all typing state for a conversation
+     */
+    public void clearConversation(Long conversationId) {
+        typingByConversation.remove(conversationId);
+    }
+
+    /**
+     * Periodically remove expired indicators and tell clients they stopped typing
+     */
+    @Scheduled(fixedDelayString = "${app.messaging.typing-sweep-ms:2000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+
+        for (Map.Entry<Long, Map<Long, Long>> conversation : typingByConversation.entrySet()) {
+            Long conversationId = conversation.getKey();
+            Map<Long, Long> typingUsers = conversation.getValue();
+
+            Iterator<Map.Entry<Long, Long>> it = typingUsers.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Long, Long> entry = it.next();
+                if (entry.getValue() < now && typingUsers.remove(entry.getKey(), entry.getValue())) {
+                    eventPublisher.publishEvent(new TypingStatusDto(conversationId, entry.getKey(), false));
+                }
+            }
+
+            if (typingUsers.isEmpty()) {
+                removeIfEmpty(conversationId);
+            }
+        }
+    }
+
+    // Drop an empty conversation map atomically, so a user added concurrently by setTyping is not lost with it
+    private void removeIfEmpty(Long conversationId) {
+        typingByConversation.computeIfPresent(conversationId,
+                (id, typingUsers) -> typingUsers.isEmpty() ? null : typingUsers);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.config.AuthenticatedUser;
+import edu.cit.commudev.config.ResourceVersionProvider;
+import edu.cit.commudev.repository.NotificationRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Version of the current user's unread notifications
+ */
+@Component
+public class UnreadNotificationVersionProvider implements ResourceVersionProvider {
+
+    private final NotificationRepository notificationRepository;
+
+    public UnreadNotificationVersionProvider(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    @Override
+    public String getVersion(HttpServletRequest request, Authentication authentication) {
+        Long userId = AuthenticatedUser.userIdOf(authentication);
+        if (userId == null) {
+            return null;
+        }
+
+        List<Object[]> rows = notificationRepository.findUnreadVersion(userId);
+        return rows.isEmpty() ? "empty" : Arrays.toString(rows.get(0));
+    }
+}
\ No newline at end of file
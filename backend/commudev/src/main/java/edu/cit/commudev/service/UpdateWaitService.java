@@ -0,0 +1,140 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.MessageEventDto;
+import edu.cit.commudev.dto.NotificationEventDto;
+import edu.cit.commudev.dto.TypingStatusDto;
+import edu.cit.commudev.dto.UpdatesDto;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parks long-poll requests until something changes for the user.
+ * Waiting requests are DeferredResults, so they hold neither a servlet thread nor a database connection.
+ */
+@Service
+public class UpdateWaitService {
+
+    private final ConversationAccessCache accessCache;
+    private final AtomicLong sequence = new AtomicLong();
+
+    // userId -> (change type -> sequence of the latest change of that type)
+    private final Map<Long, Map<String, Long>> lastChanges = new ConcurrentHashMap<>();
+    // userId -> requests currently parked for that user
+    private final Map<Long, List<DeferredResult<UpdatesDto>>> waiters = new ConcurrentHashMap<>();
+
+    public UpdateWaitService(ConversationAccessCache accessCache) {
+        this.accessCache = accessCache;
+    }
+
+    /**
+     * Wait for changes after the given sequence.
+     * Completes immediately if something already changed, otherwise when the next change
+     * arrives or with changed=false when the timeout expires.
+     */
+    public DeferredResult<UpdatesDto> waitForUpdates(Long userId, long since, long timeoutMillis) {
+        DeferredResult<UpdatesDto> result = new DeferredResult<>(timeoutMillis);
+
+        UpdatesDto pending = changesSince(userId, since);
+        if (pending.isChanged()) {
+            result.setResult(pending);
+            return result;
+        }
+
+        List<DeferredResult<UpdatesDto>> userWaiters =
+                waiters.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        userWaiters.add(result);
+
+        result.onTimeout(() -> result.setResult(new UpdatesDto(sequence.get(), false, Set.of())));
+        result.onCompletion(() -> removeWaiter(userId, result));
+
+        // A change may have landed between the first check and parking
+        UpdatesDto raced = changesSince(userId, since);
+        if (raced.isChanged()) {
+            result.setResult(raced);
+        }
+
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageEvent(MessageEventDto event) {
+        for (Long userId : accessCache.getParticipantIds(event.getConversationId())) {
+            signal(userId, UpdatesDto.MESSAGES);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationEvent(NotificationEventDto event) {
+        signal(event.getUserId(), UpdatesDto.NOTIFICATIONS);
+    }
+
+    @EventListener
+    public void onTypingEvent(TypingStatusDto event) {
+        for (Long userId : accessCache.getParticipantIds(event.getConversationId())) {
+            if (!userId.equals(event.getUserId())) {
+                signal(userId, UpdatesDto.TYPING);
+            }
+        }
+    }
+
+    /**
+     * Record a change for a user and wake every request parked for them
+     */
+    private void signal(Long userId, String type) {
+        long seq = sequence.incrementAndGet();
+        lastChanges.computeIfAbsent(userId, id -> new ConcurrentHashMap<>()).merge(type, seq, Math::max);
+
+        List<DeferredResult<UpdatesDto>> userWaiters = waiters.get(userId);
+        if (userWaiters == null) {
+            return;
+        }
+
+        UpdatesDto update = new UpdatesDto(seq, true, Set.of(type));
+        for (DeferredResult<UpdatesDto> waiter : userWaiters) {
+            waiter.setResult(update);
+        }
+    }
+
+    private UpdatesDto changesSince(Long userId, long since) {
+        long current = sequence.get();
+
+        // A client ahead of the server (e.g. after a restart) should resync everything
+        if (since > current) {
+            return new UpdatesDto(current, true,
+                    Set.of(UpdatesDto.MESSAGES, UpdatesDto.NOTIFICATIONS, UpdatesDto.TYPING));
+        }
+
+        Set<String> types = new HashSet<>();
+        Map<String, Long> changes = lastChanges.get(userId);
+        if (changes != null) {
+            changes.forEach((type, seq) -> {
+                if (seq > since) {
+                    types.add(type);
+                }
+            });
+        }
+
+        return new UpdatesDto(current, !types.isEmpty(), types);
+    }
+
+    private void removeWaiter(Long userId, DeferredResult<UpdatesDto> result) {
+        List<DeferredResult<UpdatesDto>> userWaiters = waiters.get(userId);
+        if (userWaiters != null) {
+            userWaiters.remove(result);
+            if (userWaiters.isEmpty()) {
+                waiters.remove(userId, userWaiters);
+            }
+        }
+    }
+}
\ No newline at end of file
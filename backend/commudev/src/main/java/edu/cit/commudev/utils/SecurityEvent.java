@@ -0,0 +1,23 @@
+package edu.cit.commudev.utils;
+
+import org.slf4j.event.Level;
+
+/**
+ * Events emitted by SecurityLogger on the request path, each with its own log level.
+ * How often an event is actually written is controlled by its sample rate in SecurityLogger.
+ */
+public enum SecurityEvent {
+    TOKEN_ACCEPTED(Level.DEBUG),
+    TOKEN_REJECTED(Level.WARN),
+    AUTHENTICATION_ERROR(Level.ERROR);
+
+    private final Level level;
+
+    SecurityEvent(Level level) {
+        this.level = level;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package edu.cit.commudev.utils;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -11,16 +12,79 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for security-related logging.
+ * Per-request events ({@link SecurityEvent}) are written as key=value lines at the event's level
+ * and sampled 1-in-N per event type, so a busy endpoint cannot flood the log. Appenders are
+ * asynchronous (see logback-spring.xml), so request threads never wait on log I/O.
  */
 @Component
 public class SecurityLogger {
     private static final Logger logger = LoggerFactory.getLogger(SecurityLogger.class);
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    private final Map<SecurityEvent, Integer> sampleEvery = new EnumMap<>(SecurityEvent.class);
+    private final Map<SecurityEvent, AtomicLong> eventCounts = new EnumMap<>(SecurityEvent.class);
+
+    public SecurityLogger(
+            @Value("${security.logging.token-accepted-sample-every:100}") int tokenAcceptedSampleEvery,
+            @Value("${security.logging.token-rejected-sample-every:1}") int tokenRejectedSampleEvery) {
+        sampleEvery.put(SecurityEvent.TOKEN_ACCEPTED, Math.max(1, tokenAcceptedSampleEvery));
+        sampleEvery.put(SecurityEvent.TOKEN_REJECTED, Math.max(1, tokenRejectedSampleEvery));
+        // Unexpected errors are always logged
+        sampleEvery.put(SecurityEvent.AUTHENTICATION_ERROR, 1);
+        for (SecurityEvent event : SecurityEvent.values()) {
+            eventCounts.put(event, new AtomicLong());
+        }
+    }
+
+    /**
+     * Log a request authenticated from a bearer token.
+     *
+     * @param username the authenticated username
+     */
+    public void logTokenAccepted(String username) {
+        if (!shouldLog(SecurityEvent.TOKEN_ACCEPTED)) {
+            return;
+        }
+        HttpServletRequest request = getCurrentRequest();
+        logEvent(SecurityEvent.TOKEN_ACCEPTED, null, "user={} uri={} ip={}",
+                username, getRequestUri(request), getClientIp(request));
+    }
+
+    /**
+     * Log a bearer token rejected by the authentication filter.
+     *
+     * @param reason the rejection reason sent to the client
+     */
+    public void logTokenRejected(String reason) {
+        if (!shouldLog(SecurityEvent.TOKEN_REJECTED)) {
+            return;
+        }
+        HttpServletRequest request = getCurrentRequest();
+        logEvent(SecurityEvent.TOKEN_REJECTED, null, "reason=\"{}\" uri={} ip={}",
+                reason, getRequestUri(request), getClientIp(request));
+    }
+
+    /**
+     * Log an unexpected error while authenticating a request.
+     *
+     * @param error the error
+     */
+    public void logAuthenticationError(Exception error) {
+        if (!shouldLog(SecurityEvent.AUTHENTICATION_ERROR)) {
+            return;
+        }
+        HttpServletRequest request = getCurrentRequest();
+        logEvent(SecurityEvent.AUTHENTICATION_ERROR, error, "error=\"{}\" uri={} ip={}",
+                error.getMessage(), getRequestUri(request), getClientIp(request));
+    }
+
     /**
      * Log authentication success.
      *
@@ -50,6 +114,29 @@ public class SecurityLogger {
                 username, ipAddress, userAgent, getCurrentTime(), reason);
     }
 
+    /**
+     * Log a login refused by the failed-attempt throttle.
+     *
+     * @param username the attempted username or email
+     * @param retryAfterSeconds seconds until another attempt is allowed
+     */
+    public void logLoginThrottled(String username, long retryAfterSeconds) {
+        HttpServletRequest request = getCurrentRequest();
+        String ipAddress = getClientIp(request);
+
+        logger.warn("LOGIN THROTTLED: Attempt for user '{}' from IP {} rejected at {}. Retry after {} seconds",
+                username, ipAddress, getCurrentTime(), retryAfterSeconds);
+    }
+
+    /**
+     * Get the IP address of the client making the current request.
+     *
+     * @return the client IP address, or "N/A" outside of a request
+     */
+    public String currentClientIp() {
+        return getClientIp(getCurrentRequest());
+    }
+
     /**
      * Log an authorization failure.
      *
@@ -83,6 +170,26 @@ public class SecurityLogger {
                 activity, username, ipAddress, userAgent, getCurrentTime(), details);
     }
 
+    /**
+     * Decide whether this occurrence of an event is written.
+     * Checks the level first so disabled events cost neither a counter update nor any formatting.
+     */
+    private boolean shouldLog(SecurityEvent event) {
+        if (!logger.isEnabledForLevel(event.getLevel())) {
+            return false;
+        }
+        int every = sampleEvery.get(event);
+        return every == 1 || eventCounts.get(event).getAndIncrement() % every == 0;
+    }
+
+    private void logEvent(SecurityEvent event, Throwable cause, String format, Object... args) {
+        int every = sampleEvery.get(event);
+        String line = "event=" + event + (every > 1 ? " sample=1/" + every : "") + " " + format;
+        logger.atLevel(event.getLevel())
+                .setCause(cause)
+                .log(line, args);
+    }
+
     /**
      * Get the current HTTP request.
      *
@@ -95,16 +202,21 @@ public class SecurityLogger {
                 .orElse(null);
     }
 
+    private String getRequestUri(HttpServletRequest request) {
+        return request != null ? request.getRequestURI() : "N/A";
+    }
+
     /**
      * Get the client IP address.
+     * X-Forwarded-For is not read here: anyone can send it. Behind a proxy, the container
+     * resolves the remote address from it only for trusted proxies (server.forward-headers-strategy).
      *
      * @param request the HTTP request
      * @return the client IP address
      */
     private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+        if (request == null) {
+            return "N/A";
         }
         return request.getRemoteAddr();
     }
@@ -0,0 +1,33 @@
+package edu.cit.commudev;
+
+import edu.cit.commudev.entity.NewsfeedEntity;
+import edu.cit.commudev.entity.User;
+
+/**
+ * Unsaved entities for tests, with predictable field values derived from their name.
+ * Callers persist them with whatever repository or EntityManager the test already uses.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * User "alice" with email alice@example.com, name "Alice Tester" and password "password"
+     */
+    public static User user(String username) {
+        User user = new User(username, username + "@example.com", "password");
+        user.setFirstname(username.substring(0, 1).toUpperCase() + username.substring(1));
+        user.setLastname("Tester");
+        return user;
+    }
+
+    /**
+     * Text post by author, dated now
+     */
+    public static NewsfeedEntity post(User author, String text) {
+        NewsfeedEntity post = new NewsfeedEntity(text, "text");
+        post.setUser(author);
+        return post;
+    }
+}
\ No newline at end of file
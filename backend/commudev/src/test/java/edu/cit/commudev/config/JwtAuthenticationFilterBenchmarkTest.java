@@ -0,0 +1,123 @@
+package edu.cit.commudev.config;
+
+import edu.cit.commudev.entity.Role;
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.service.DisabledUserRegistry;
+import edu.cit.commudev.service.JwtService;
+import edu.cit.commudev.service.TokenRevocationService;
+import edu.cit.commudev.utils.SecurityLogger;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Per-request cost of bearer token authentication: the old path (key rebuilt and the token parsed three
+ * times) against a single verify() with the cached parser, plus the whole filter in stateless mode.
+ * Only runs with -Dbenchmark=true, e.g. {@code mvn test -Dtest=JwtAuthenticationFilterBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JwtAuthenticationFilterBenchmarkTest {
+
+    private static final String SECRET = "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void compareAuthenticationCost() throws Exception {
+        JwtService jwtService = new JwtService(SECRET, 3_600_000, 86_400_000);
+
+        User user = user("alice");
+        user.setId(1L);
+        Role role = new Role();
+        role.setName("USER");
+        user.getRoles().add(role);
+        String token = jwtService.generateToken(user);
+
+        UserDetailsService userDetailsService = username -> user;
+        JwtAuthenticationFilter uncachedFilter = filter(jwtService, userDetailsService, 0);
+        JwtAuthenticationFilter cachedFilter = filter(jwtService, userDetailsService, 10_000);
+
+        double legacy = nanosPerOp(() -> legacyValidate(token, userDetailsService));
+        double verify = nanosPerOp(() -> jwtService.verify(token));
+
+        double uncached = nanosPerOp(() -> authenticateRequest(uncachedFilter, token));
+        double cached = nanosPerOp(() -> authenticateRequest(cachedFilter, token));
+
+        System.out.printf("legacy validation: %.0f ns/op, verify: %.0f ns/op, "
+                        + "filter (stateless): %.0f ns/op, filter (token cache): %.0f ns/op%n",
+                legacy, verify, uncached, cached);
+        assertEquals("alice", jwtService.verify(token).getSubject());
+    }
+
+    private static JwtAuthenticationFilter filter(JwtService jwtService, UserDetailsService userDetailsService,
+                                                  int tokenCacheSize) {
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(tokenCache, "maxEntries", tokenCacheSize);
+        TokenAuthenticator tokenAuthenticator = new TokenAuthenticator(jwtService, userDetailsService, tokenCache,
+                new TokenRevocationService(1 << 16), new DisabledUserRegistry());
+        ReflectionTestUtils.setField(tokenAuthenticator, "statelessAuth", true);
+        return new JwtAuthenticationFilter(tokenAuthenticator, new SecurityLogger(100, 1),
+                (req, res, handler, ex) -> null);
+    }
+
+    private static void authenticateRequest(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/messages/conversations");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * The pre-change request path: decode the key and build a parser for every parse,
+     * once for the subject, then twice more inside isTokenValid.
+     */
+    private static void legacyValidate(String token, UserDetailsService userDetailsService) {
+        String username = legacyParse(token).getSubject();
+        var userDetails = userDetailsService.loadUserByUsername(username);
+        boolean valid = legacyParse(token).getSubject().equals(userDetails.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+        if (!valid) {
+            throw new IllegalStateException("Token should be valid");
+        }
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static double nanosPerOp(Operation operation) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package edu.cit.commudev.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-request cost of resolving the authorization rule: the previous ordered chain of about 30 matchers
+ * (modelled with AntPathRequestMatcher, duplicates included) against the compiled SecurityRouteTable.
+ * Only runs with -Dbenchmark=true, e.g. {@code mvn test -Dtest=SecurityRouteTableBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SecurityRouteTableBenchmarkTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    // Typical traffic: polling and messaging dominate, most requests fall through to "authenticated"
+    private static final MockHttpServletRequest[] REQUESTS = {
+            new MockHttpServletRequest("GET", "/api/messages/conversations"),
+            new MockHttpServletRequest("GET", "/api/notifications/unread-count"),
+            new MockHttpServletRequest("GET", "/api/newsfeed/all"),
+            new MockHttpServletRequest("POST", "/api/messages/conversations/12/messages"),
+            new MockHttpServletRequest("GET", "/users/me"),
+            new MockHttpServletRequest("GET", "/profile-pictures/alice.png"),
+    };
+
+    @Test
+    void compareRuleLookupCost() {
+        List<RequestMatcher> legacy = legacyMatchers();
+        SecurityRouteTable table = new SecurityRouteTable();
+
+        double compiled = nanosPerOp(request -> table.accessFor(request) != null);
+        double chain = nanosPerOp(request -> {
+            for (RequestMatcher matcher : legacy) {
+                if (matcher.matches(request)) {
+                    return true;
+                }
+            }
+            return true;
+        });
+
+        System.out.printf("matcher chain: %.0f ns/request, route table: %.0f ns/request%n", chain, compiled);
+        assertTrue(compiled > 0);
+    }
+
+    private static List<RequestMatcher> legacyMatchers() {
+        List<RequestMatcher> matchers = new ArrayList<>();
+        add(matchers, null, "/auth/**", "/public/**", "/error");
+        add(matchers, "OPTIONS", "/**");
+        add(matchers, null, "/profile-pictures/**", "/cover-photos/**");
+        add(matchers, null, "/profile-pictures/**", "/cover-photos/**", "/messages/**");
+        add(matchers, null, "/ws/**");
+        add(matchers, "GET", "/api/newsfeed/all", "/api/newsfeed/*");
+        add(matchers, "GET", "/api/newsfeed/user/**");
+        add(matchers, "GET", "/api/comments/post/**", "/api/comments/count/**");
+        add(matchers, "GET", "/api/resourcehub/all", "/api/resourcehub/*");
+        add(matchers, "GET", "/api/resourcehub/category/**");
+        add(matchers, "GET", "/api/resourcehub/search");
+        add(matchers, null, "/users/profiles/**");
+        add(matchers, null, "/users/all");
+        add(matchers, null, "/admin/**");
+        add(matchers, null, "/users/");
+        add(matchers, null, "/users/me/**");
+        add(matchers, null, "/api/newsfeed/create", "/api/newsfeed/my-posts", "/api/newsfeed/update/**",
+                "/api/newsfeed/delete/**", "/api/newsfeed/like/**", "/api/newsfeed/can-edit/**");
+        add(matchers, "POST", "/api/comments");
+        add(matchers, "PUT", "/api/comments/**");
+        add(matchers, "DELETE", "/api/comments/**");
+        add(matchers, null, "/api/comments/my-comments");
+        add(matchers, "POST", "/api/resourcehub/create");
+        add(matchers, "PUT", "/api/resourcehub/update/**");
+        add(matchers, "DELETE", "/api/resourcehub/delete/**");
+        add(matchers, "PATCH", "/api/resourcehub/heart/**");
+        add(matchers, null, "/api/resourcehub/creator/**");
+        return matchers;
+    }
+
+    private static void add(List<RequestMatcher> matchers, String method, String... patterns) {
+        for (String pattern : patterns) {
+            matchers.add(new AntPathRequestMatcher(pattern, method));
+        }
+    }
+
+    private static double nanosPerOp(Lookup lookup) {
+        for (int i = 0; i < WARMUP; i++) {
+            lookup.resolve(REQUESTS[i % REQUESTS.length]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            lookup.resolve(REQUESTS[i % REQUESTS.length]);
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        boolean resolve(MockHttpServletRequest request);
+    }
+}
\ No newline at end of file
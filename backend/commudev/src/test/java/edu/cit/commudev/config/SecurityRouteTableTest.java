@@ -0,0 +1,70 @@
+package edu.cit.commudev.config;
+
+import edu.cit.commudev.config.SecurityRouteTable.Access;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecurityRouteTableTest {
+
+    private final SecurityRouteTable routes = new SecurityRouteTable();
+
+    @Test
+    void publicRoutes() {
+        assertEquals(Access.PUBLIC, access("POST", "/auth/login"));
+        assertEquals(Access.PUBLIC, access("GET", "/error"));
+        assertEquals(Access.PUBLIC, access("GET", "/profile-pictures/a.png"));
+        assertEquals(Access.PUBLIC, access("GET", "/ws/info"));
+        assertEquals(Access.PUBLIC, access("GET", "/api/newsfeed/all"));
+        assertEquals(Access.PUBLIC, access("GET", "/api/newsfeed/42"));
+        assertEquals(Access.PUBLIC, access("GET", "/api/newsfeed/engagement"));
+        assertEquals(Access.PUBLIC, access("GET", "/api/comments/post/42"));
+        assertEquals(Access.PUBLIC, access("GET", "/api/resourcehub/search"));
+        assertEquals(Access.PUBLIC, access("GET", "/users/profiles/alice"));
+    }
+
+    @Test
+    void preflightIsPublicEverywhere() {
+        assertEquals(Access.PUBLIC, access("OPTIONS", "/api/messages/conversations"));
+        assertEquals(Access.PUBLIC, access("OPTIONS", "/admin/users"));
+        assertEquals(Access.PUBLIC, access("OPTIONS", "/"));
+    }
+
+    @Test
+    void methodRestrictedRoutesNeedAuthenticationForWrites() {
+        assertEquals(Access.AUTHENTICATED, access("DELETE", "/api/newsfeed/42"));
+        assertEquals(Access.AUTHENTICATED, access("POST", "/api/comments/post/42"));
+        assertEquals(Access.AUTHENTICATED, access("GET", "/api/newsfeed/like/42"));
+        assertEquals(Access.AUTHENTICATED, access("GET", "/api/newsfeed/home"));
+        assertEquals(Access.AUTHENTICATED, access("GET", "/users/me"));
+        assertEquals(Access.AUTHENTICATED, access("GET", "/api/messages/conversations"));
+    }
+
+    @Test
+    void roleRoutes() {
+        assertEquals(Access.ADMIN, access("GET", "/admin/users"));
+        assertEquals(Access.STAFF, access("GET", "/users/"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/users");
+        RequestAuthorizationContext context = new RequestAuthorizationContext(request);
+        assertFalse(routes.check(() -> new TestingAuthenticationToken("bob", null, "ROLE_USER"), context).isGranted());
+        assertTrue(routes.check(() -> new TestingAuthenticationToken("amy", null, "ROLE_ADMIN"), context).isGranted());
+    }
+
+    @Test
+    void encodedPathsResolveLikeDecodedOnes() {
+        assertEquals(Access.ADMIN, access("GET", "/%61dmin/users"));
+        assertEquals(Access.ADMIN, access("GET", "/admin;x=1/users"));
+        // A cached decision is returned for a repeated path
+        assertEquals(Access.ADMIN, access("GET", "/%61dmin/users"));
+    }
+
+    private Access access(String method, String uri) {
+        return routes.accessFor(new MockHttpServletRequest(method, uri));
+    }
+}
\ No newline at end of file
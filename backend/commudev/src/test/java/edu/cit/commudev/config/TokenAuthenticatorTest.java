@@ -0,0 +1,144 @@
+package edu.cit.commudev.config;
+
+import edu.cit.commudev.dto.UserStatusEventDto;
+import edu.cit.commudev.entity.Role;
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.service.DisabledUserRegistry;
+import edu.cit.commudev.service.JwtService;
+import edu.cit.commudev.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the verified-token cache in front of JWT verification, its invalidation on account status changes,
+ * and token revocation.
+ */
+class TokenAuthenticatorTest {
+
+    private static final String SECRET = "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+
+    private final AtomicInteger verifications = new AtomicInteger();
+    private VerifiedTokenCache tokenCache;
+    private TokenRevocationService revocationService;
+    private DisabledUserRegistry disabledUsers;
+    private JwtService jwtService;
+    private User user;
+    private TokenAuthenticator tokenAuthenticator;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000, 86_400_000) {
+            @Override
+            public Claims verify(String jwt) {
+                verifications.incrementAndGet();
+                return super.verify(jwt);
+            }
+        };
+
+        user = user("alice");
+        user.setId(1L);
+        Role role = new Role();
+        role.setName("USER");
+        user.getRoles().add(role);
+        token = jwtService.generateToken(user);
+
+        tokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(tokenCache, "maxEntries", 100);
+        revocationService = new TokenRevocationService(1 << 16);
+        disabledUsers = new DisabledUserRegistry();
+        tokenAuthenticator = new TokenAuthenticator(jwtService, username -> user, tokenCache, revocationService,
+                disabledUsers);
+        ReflectionTestUtils.setField(tokenAuthenticator, "statelessAuth", true);
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() {
+        Object first = tokenAuthenticator.authenticate(token);
+        Object second = tokenAuthenticator.authenticate(token);
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void disablingUserInvalidatesCachedTokens() {
+        tokenAuthenticator.authenticate(token);
+
+        tokenAuthenticator.onUserStatusChanged(new UserStatusEventDto(1L, false));
+        assertNull(tokenCache.get(token));
+        assertThrows(DisabledException.class, () -> tokenAuthenticator.authenticate(token));
+
+        tokenAuthenticator.onUserStatusChanged(new UserStatusEventDto(1L, true));
+        assertDoesNotThrow(() -> tokenAuthenticator.authenticate(token));
+    }
+
+    @Test
+    void usersDisabledElsewhereAreRefusedAfterReload() {
+        tokenAuthenticator.authenticate(token);
+
+        disabledUsers.reload(() -> List.of(1L));
+        assertThrows(DisabledException.class, () -> tokenAuthenticator.authenticate(token));
+
+        disabledUsers.reload(() -> {
+            // Re-enabled on this instance while the reload was reading a stale snapshot
+            tokenAuthenticator.onUserStatusChanged(new UserStatusEventDto(1L, true));
+            return List.of(1L);
+        });
+        assertDoesNotThrow(() -> tokenAuthenticator.authenticate(token));
+    }
+
+    @Test
+    void revokedTokenIsRefusedEvenWhenCached() {
+        tokenAuthenticator.authenticate(token);
+
+        tokenAuthenticator.revoke(token);
+
+        assertThrows(BadCredentialsException.class, () -> tokenAuthenticator.authenticate(token));
+        assertEquals(1, revocationService.size());
+    }
+
+    @Test
+    void refreshTokenCannotAuthenticateRequests() {
+        String refreshToken = jwtService.generateRefreshToken(user);
+
+        assertThrows(BadCredentialsException.class, () -> tokenAuthenticator.authenticate(refreshToken));
+    }
+
+    @Test
+    void pruningKeepsUnexpiredRevocations() {
+        revocationService.revoke("expired-soon", System.currentTimeMillis() + 1);
+        revocationService.revoke("live", System.currentTimeMillis() + 60_000);
+
+        await(5);
+        revocationService.pruneExpired();
+
+        assertFalse(revocationService.isRevoked("expired-soon"));
+        assertTrue(revocationService.isRevoked("live"));
+        assertFalse(revocationService.isRevoked("never-revoked"));
+    }
+
+    private static void await(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package edu.cit.commudev.repository;
+
+import edu.cit.commudev.dto.PostViewDto;
+import edu.cit.commudev.entity.CommentEntity;
+import edu.cit.commudev.entity.NewsfeedEntity;
+import edu.cit.commudev.entity.PostLike;
+import edu.cit.commudev.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static edu.cit.commudev.TestFixtures.post;
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset paging over (post_date, newsfeed_id): one statement per page, no gaps or repeats on ties,
+ * with comment counts and the viewer's like state computed in that same statement.
+ */
+@DataJpaTest
+class NewsfeedTimelineQueryTest {
+
+    @Autowired
+    private NewsfeedRepo newsfeedRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void pagesThroughTiesWithoutGapsOrRepeats() {
+        User author = user("alice");
+        entityManager.persist(author);
+
+        // Two posts share each timestamp, so the id has to break ties
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            NewsfeedEntity post = post(author, "post " + i);
+            post.setPostDate(base.plusMinutes(i / 2));
+            entityManager.persist(post);
+            expected.add(0, post.getNewsfeedId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Integer> seen = new ArrayList<>();
+        List<PostViewDto> page = newsfeedRepo.findTimeline(null, PageRequest.of(0, 3));
+        int pages = 1;
+        while (true) {
+            page.forEach(post -> seen.add(post.getNewsfeedId()));
+            if (page.size() < 3) {
+                break;
+            }
+            PostViewDto last = page.get(page.size() - 1);
+            page = newsfeedRepo.findTimelineBefore(
+                    last.getPostDate(), last.getNewsfeedId(), null, PageRequest.of(0, 3));
+            pages++;
+        }
+
+        assertEquals(expected, seen);
+        assertEquals(pages, statistics.getPrepareStatementCount());
+
+        PostViewDto newest = newsfeedRepo.findTimeline(null, PageRequest.of(0, 1)).get(0);
+        assertEquals("alice", newest.getUser().getUsername());
+        assertEquals("Alice", newest.getUser().getFirstname());
+    }
+
+    @Test
+    void postViewCarriesCountsAndViewerLikeInOneStatement() {
+        User author = user("alice");
+        User viewer = user("bob");
+        entityManager.persist(author);
+        entityManager.persist(viewer);
+
+        NewsfeedEntity liked = post(author, "liked");
+        entityManager.persist(liked);
+        NewsfeedEntity quiet = post(author, "quiet");
+        quiet.setPostDate(liked.getPostDate().minusMinutes(1));
+        entityManager.persist(quiet);
+
+        entityManager.persist(new CommentEntity("first", viewer, liked));
+        entityManager.persist(new CommentEntity("second", author, liked));
+        entityManager.persist(new PostLike(viewer, liked));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<PostViewDto> page = newsfeedRepo.findTimeline(viewer.getId(), PageRequest.of(0, 10));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertEquals(List.of(liked.getNewsfeedId(), quiet.getNewsfeedId()),
+                page.stream().map(PostViewDto::getNewsfeedId).toList());
+        assertEquals(2, page.get(0).getCommentCount());
+        assertTrue(page.get(0).isLikedByViewer());
+        assertEquals(0, page.get(1).getCommentCount());
+        assertFalse(page.get(1).isLikedByViewer());
+
+        // Anonymous viewers never see a like
+        assertFalse(newsfeedRepo.findViewById(liked.getNewsfeedId(), null).orElseThrow().isLikedByViewer());
+        assertFalse(newsfeedRepo.findViewById(liked.getNewsfeedId(), author.getId()).orElseThrow().isLikedByViewer());
+    }
+}
\ No newline at end of file
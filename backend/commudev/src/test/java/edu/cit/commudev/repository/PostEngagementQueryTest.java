@@ -0,0 +1,93 @@
+package edu.cit.commudev.repository;
+
+import edu.cit.commudev.entity.CommentEntity;
+import edu.cit.commudev.entity.NewsfeedEntity;
+import edu.cit.commudev.entity.PostLike;
+import edu.cit.commudev.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static edu.cit.commudev.TestFixtures.post;
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Batched engagement lookups: one aggregate statement per counter for a whole page of posts.
+ */
+@DataJpaTest
+class PostEngagementQueryTest {
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void countsAndViewerLikesForABatchOfPosts() {
+        User alice = persistUser("alice");
+        User bob = persistUser("bob");
+
+        NewsfeedEntity popular = persistPost(alice, "popular");
+        NewsfeedEntity commented = persistPost(alice, "commented");
+        NewsfeedEntity quiet = persistPost(bob, "quiet");
+
+        entityManager.persist(new PostLike(alice, popular));
+        entityManager.persist(new PostLike(bob, popular));
+        entityManager.persist(new PostLike(bob, quiet));
+        entityManager.persist(new CommentEntity("nice", bob, commented));
+        entityManager.persist(new CommentEntity("thanks", alice, commented));
+        entityManager.persist(new CommentEntity("first", bob, popular));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Integer> ids = List.of(popular.getNewsfeedId(), commented.getNewsfeedId(), quiet.getNewsfeedId(), -1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<Integer, Long> likes = toMap(postLikeRepository.countByPostIds(ids));
+        Map<Integer, Long> comments = toMap(commentRepository.countByPostIds(ids));
+        List<Integer> likedByAlice = postLikeRepository.findLikedPostIds(alice.getId(), ids);
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(Map.of(popular.getNewsfeedId(), 2L, quiet.getNewsfeedId(), 1L), likes);
+        assertEquals(Map.of(commented.getNewsfeedId(), 2L, popular.getNewsfeedId(), 1L), comments);
+        assertEquals(List.of(popular.getNewsfeedId()), likedByAlice);
+    }
+
+    private Map<Integer, Long> toMap(List<Object[]> rows) {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private NewsfeedEntity persistPost(User author, String text) {
+        NewsfeedEntity post = post(author, text);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private User persistUser(String username) {
+        User user = user(username);
+        entityManager.persist(user);
+        return user;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package edu.cit.commudev.repository;
+
+import edu.cit.commudev.config.AuthenticatedUser;
+import edu.cit.commudev.entity.Role;
+import edu.cit.commudev.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Resolving a principal name (email or username) must take one statement, hit or miss.
+ */
+@DataJpaTest
+class UserRepositoryIdentifierLookupTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Role user = new Role("USER");
+        Role admin = new Role("ADMIN");
+        entityManager.persist(user);
+        entityManager.persist(admin);
+
+        User alice = new User("alice", "alice@example.com", "hash");
+        alice.setEnabled(true);
+        alice.addRole(user);
+        alice.addRole(admin);
+        entityManager.persist(alice);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void credentialsLookupUsesOneQueryByEmailOrUsername() {
+        AuthenticatedUser byEmail = AuthenticatedUser.fromCredentials(
+                "alice@example.com", userRepository.findCredentialsByIdentifier("alice@example.com"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("alice", byEmail.getUsername());
+        assertEquals("hash", byEmail.getPassword());
+        assertTrue(byEmail.isEnabled());
+        assertEquals(2, byEmail.getAuthorities().size());
+
+        statistics.clear();
+        AuthenticatedUser byUsername = AuthenticatedUser.fromCredentials(
+                "alice", userRepository.findCredentialsByIdentifier("alice"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(byEmail.getId(), byUsername.getId());
+    }
+
+    @Test
+    void missTakesOneQuery() {
+        assertNull(AuthenticatedUser.fromCredentials(
+                "nobody", userRepository.findCredentialsByIdentifier("nobody")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertTrue(userRepository.findByIdentifier("nobody@example.com").isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package edu.cit.commudev.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import edu.cit.commudev.config.EmailConfiguration;
+import edu.cit.commudev.entity.EmailOutbox;
+import edu.cit.commudev.repository.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivers outbox emails through an in-process SMTP server (GreenMail) and checks retry scheduling.
+ */
+@DataJpaTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=" + EmailOutboxServiceTest.SMTP_PORT,
+        "spring.mail.username=noreply@commudev.test",
+        "spring.mail.password=secret",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "app.mail.max-per-second=100",
+        "app.mail.timeout-ms=2000"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EmailOutboxService.class, EmailService.class, EmailConfiguration.class})
+class EmailOutboxServiceTest {
+
+    static final int SMTP_PORT = 3925;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private GreenMail greenMail;
+
+    @BeforeEach
+    void startSmtp() {
+        outboxRepository.deleteAll();
+        greenMail = new GreenMail(new ServerSetup(SMTP_PORT, "localhost", ServerSetup.PROTOCOL_SMTP));
+        greenMail.setUser("noreply@commudev.test", "noreply@commudev.test", "secret");
+        greenMail.start();
+    }
+
+    @AfterEach
+    void stopSmtp() {
+        greenMail.stop();
+    }
+
+    @Test
+    void queuedEmailIsDeliveredAfterCommit() throws Exception {
+        enqueueInTransaction("alice@example.com");
+
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 1));
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertEquals("Account Verification", received.getSubject());
+        assertEquals("alice@example.com", received.getAllRecipients()[0].toString());
+
+        EmailOutbox email = awaitEmail(e -> e.getStatus() == EmailOutbox.Status.SENT);
+        assertEquals(0, email.getAttempts());
+    }
+
+    @Test
+    void failedDeliveryIsRescheduledWithBackoff() {
+        greenMail.stop();
+
+        enqueueInTransaction("bob@example.com");
+
+        EmailOutbox email = awaitEmail(e -> e.getAttempts() == 1);
+        assertEquals(EmailOutbox.Status.PENDING, email.getStatus());
+        assertTrue(email.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertTrue(email.getLastError() != null);
+    }
+
+    private void enqueueInTransaction(String recipient) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                emailOutboxService.enqueueVerificationEmail(recipient, "Account Verification",
+                        "Your verification code is: 123456"));
+    }
+
+    private EmailOutbox awaitEmail(Predicate<EmailOutbox> condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            EmailOutbox email = outboxRepository.findAll().stream().findFirst().orElse(null);
+            if (email != null && condition.test(email)) {
+                return email;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new AssertionError("Outbox email did not reach the expected state");
+    }
+}
\ No newline at end of file
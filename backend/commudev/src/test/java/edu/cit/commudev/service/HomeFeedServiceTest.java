@@ -0,0 +1,186 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.TestFixtures;
+import edu.cit.commudev.dto.FriendshipEventDto;
+import edu.cit.commudev.dto.PostCreatedEventDto;
+import edu.cit.commudev.dto.PostViewDto;
+import edu.cit.commudev.dto.TimelinePageDto;
+import edu.cit.commudev.entity.Friendship;
+import edu.cit.commudev.entity.NewsfeedEntity;
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.repository.FeedEntryRepository;
+import edu.cit.commudev.repository.FriendshipRepository;
+import edu.cit.commudev.repository.NewsfeedRepo;
+import edu.cit.commudev.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+// Fan-out writes run in their own transactions, so test data has to be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(HomeFeedService.class)
+class HomeFeedServiceTest {
+
+    @Autowired
+    private HomeFeedService homeFeedService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private NewsfeedRepo newsfeedRepo;
+
+    @Autowired
+    private FeedEntryRepository feedEntryRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+    // Recent enough for the friendship backfill window
+    private LocalDateTime lastPostDate = LocalDateTime.now().minusDays(1).withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+        carol = userRepository.save(user("carol"));
+        befriend(alice, bob);
+        ReflectionTestUtils.setField(homeFeedService, "fanOutMaxFriends", 1000);
+        homeFeedService.refreshFanOutOnReadAuthors();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feedEntryRepository.deleteAll();
+        newsfeedRepo.deleteAll();
+        friendshipRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void postsReachAuthorAndFriendsOnly() {
+        int postId = post(alice);
+
+        assertEquals(List.of(postId), ids(homeFeedService.getHomeTimeline(bob.getId(), null, 10)));
+        assertEquals(List.of(postId), ids(homeFeedService.getHomeTimeline(alice.getId(), null, 10)));
+        assertTrue(homeFeedService.getHomeTimeline(carol.getId(), null, 10).getPosts().isEmpty());
+    }
+
+    @Test
+    void pagesWithCursor() {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, post(i % 2 == 0 ? alice : bob));
+        }
+
+        TimelinePageDto first = homeFeedService.getHomeTimeline(bob.getId(), null, 3);
+        TimelinePageDto second = homeFeedService.getHomeTimeline(bob.getId(), first.getNextCursor(), 3);
+
+        assertTrue(first.isHasMore());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        List<Integer> seen = new ArrayList<>(ids(first));
+        seen.addAll(ids(second));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void accountsOverTheThresholdAreMergedAtReadTime() {
+        ReflectionTestUtils.setField(homeFeedService, "fanOutMaxFriends", 0);
+        int aliceOld = post(alice);
+        int bobPost = post(bob);
+        int aliceNew = post(alice);
+
+        // Nothing was copied into bob's feed for alice, yet her posts still show up in order
+        assertEquals(1, feedEntryRepository.findAll().stream()
+                .filter(entry -> entry.getOwnerId().equals(bob.getId()))
+                .count());
+        assertEquals(List.of(aliceNew, bobPost, aliceOld),
+                ids(homeFeedService.getHomeTimeline(bob.getId(), null, 10)));
+
+        TimelinePageDto first = homeFeedService.getHomeTimeline(bob.getId(), null, 2);
+        assertEquals(List.of(aliceOld), ids(homeFeedService.getHomeTimeline(bob.getId(), first.getNextCursor(), 2)));
+    }
+
+    @Test
+    void accountsBackUnderTheThresholdAreBackfilled() {
+        ReflectionTestUtils.setField(homeFeedService, "fanOutMaxFriends", 0);
+        homeFeedService.refreshFanOutOnReadAuthors();
+        int alicePost = post(alice);
+
+        ReflectionTestUtils.setField(homeFeedService, "fanOutMaxFriends", 1000);
+        homeFeedService.refreshFanOutOnReadAuthors();
+
+        // Copied into bob's feed now that it is no longer merged at read time
+        assertTrue(feedEntryRepository.findAll().stream()
+                .anyMatch(entry -> entry.getOwnerId().equals(bob.getId()) && entry.getNewsfeedId() == alicePost));
+        assertEquals(List.of(alicePost), ids(homeFeedService.getHomeTimeline(bob.getId(), null, 10)));
+    }
+
+    @Test
+    void repeatedFanOutIsIgnored() {
+        int postId = post(alice);
+
+        homeFeedService.onPostCreated(new PostCreatedEventDto(postId, alice.getId(), lastPostDate));
+
+        assertEquals(2, feedEntryRepository.count());
+        assertEquals(List.of(postId), ids(homeFeedService.getHomeTimeline(bob.getId(), null, 10)));
+    }
+
+    @Test
+    void friendshipChangesBackfillAndRemoveEntries() {
+        int carolPost = post(carol);
+        assertTrue(homeFeedService.getHomeTimeline(alice.getId(), null, 10).getPosts().isEmpty());
+
+        befriend(alice, carol);
+        homeFeedService.onFriendshipChanged(new FriendshipEventDto(alice.getId(), carol.getId(), true));
+        assertEquals(List.of(carolPost), ids(homeFeedService.getHomeTimeline(alice.getId(), null, 10)));
+
+        homeFeedService.onFriendshipChanged(new FriendshipEventDto(alice.getId(), carol.getId(), false));
+        assertTrue(homeFeedService.getHomeTimeline(alice.getId(), null, 10).getPosts().isEmpty());
+    }
+
+    private int post(User author) {
+        lastPostDate = lastPostDate.plusSeconds(1);
+        NewsfeedEntity post = TestFixtures.post(author, "post by " + author.getUsername());
+        post.setPostDate(lastPostDate);
+        post = newsfeedRepo.save(post);
+        homeFeedService.onPostCreated(new PostCreatedEventDto(post.getNewsfeedId(), author.getId(), post.getPostDate()));
+        return post.getNewsfeedId();
+    }
+
+    private void befriend(User one, User two) {
+        Friendship friendship = new Friendship();
+        friendship.setUserOne(one);
+        friendship.setUserTwo(two);
+        friendship.setRequester(one);
+        friendship.setAddressee(two);
+        friendship.setStatus("ACCEPTED");
+        friendship.setCreatedAt(LocalDateTime.now());
+        friendshipRepository.save(friendship);
+    }
+
+    private static List<Integer> ids(TimelinePageDto page) {
+        return page.getPosts().stream().map(PostViewDto::getNewsfeedId).toList();
+    }
+}
\ No newline at end of file
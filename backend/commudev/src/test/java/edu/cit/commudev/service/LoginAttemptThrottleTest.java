@@ -0,0 +1,73 @@
+package edu.cit.commudev.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginAttemptThrottleTest {
+
+    private LoginAttemptThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginAttemptThrottle();
+        ReflectionTestUtils.setField(throttle, "maxFailuresPerEmail", 3);
+        ReflectionTestUtils.setField(throttle, "maxFailuresPerIp", 5);
+        ReflectionTestUtils.setField(throttle, "windowMillis", 60_000L);
+        ReflectionTestUtils.setField(throttle, "maxTrackedKeys", 1000);
+    }
+
+    @Test
+    void blocksEmailFromOneIpAfterTooManyFailures() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.retryAfterSeconds("Alice@Example.com", "10.0.0.1"));
+            throttle.recordFailure("alice@example.com", "10.0.0.1");
+        }
+
+        long retryAfter = throttle.retryAfterSeconds("ALICE@example.com", "10.0.0.1");
+        assertTrue(retryAfter > 0 && retryAfter <= 60);
+
+        throttle.recordSuccess("alice@example.com", "10.0.0.1");
+        assertEquals(0, throttle.retryAfterSeconds("alice@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void failuresFromOneIpDoNotLockTheAccountElsewhere() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("alice@example.com", "10.0.0.1");
+        }
+
+        assertTrue(throttle.retryAfterSeconds("alice@example.com", "10.0.0.1") > 0);
+        assertEquals(0, throttle.retryAfterSeconds("alice@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void blocksIpAcrossEmails() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertTrue(throttle.retryAfterSeconds("someone@example.com", "10.0.0.1") > 0);
+        assertEquals(0, throttle.retryAfterSeconds("someone@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void failuresLeaveTheWindow() {
+        ReflectionTestUtils.setField(throttle, "windowMillis", 1L);
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("bob@example.com", "10.0.0.1");
+        }
+
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throttle.sweepExpired();
+
+        assertEquals(0, throttle.retryAfterSeconds("bob@example.com", "10.0.0.1"));
+    }
+}
\ No newline at end of file
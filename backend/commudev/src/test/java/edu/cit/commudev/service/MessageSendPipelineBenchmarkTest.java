@@ -0,0 +1,98 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.MessageDto;
+import edu.cit.commudev.entity.Conversation;
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.repository.ConversationRepository;
+import edu.cit.commudev.repository.MessageRepository;
+import edu.cit.commudev.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of the direct sendMessage path against the batched send pipeline.
+ * Only runs with -Dbenchmark=true, e.g. {@code mvn test -Dtest=MessageSendPipelineBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MessageService.class, ConversationAccessCache.class, TypingIndicatorService.class, MessageSendPipeline.class})
+class MessageSendPipelineBenchmarkTest {
+
+    private static final int MESSAGES = 5000;
+    private static final int SENDERS = 8;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageSendPipeline messageSendPipeline;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Test
+    void compareThroughput() throws Exception {
+        User alice = userRepository.save(user("alice"));
+        User bob = userRepository.save(user("bob"));
+
+        Conversation conversation = new Conversation();
+        conversation.addParticipant(alice);
+        conversation.addParticipant(bob);
+        Long conversationId = conversationRepository.save(conversation).getId();
+
+        ExecutorService senders = Executors.newFixedThreadPool(SENDERS);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<MessageDto>> direct = new ArrayList<>();
+            for (int i = 0; i < MESSAGES; i++) {
+                int n = i;
+                direct.add(CompletableFuture.supplyAsync(() -> {
+                    MessageDto message = new MessageDto();
+                    message.setSenderId(n % 2 == 0 ? alice.getId() : bob.getId());
+                    message.setText("direct " + n);
+                    return messageService.sendMessage(conversationId, message);
+                }, senders));
+            }
+            CompletableFuture.allOf(direct.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+            double directRate = MESSAGES / ((System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            List<CompletableFuture<MessageDto>> pipelined = new ArrayList<>();
+            for (int i = 0; i < MESSAGES; i++) {
+                int n = i;
+                pipelined.add(CompletableFuture.supplyAsync(
+                        () -> messageSendPipeline.submit(conversationId, n % 2 == 0 ? alice : bob, "pipelined " + n),
+                        senders).thenCompose(future -> future));
+            }
+            CompletableFuture.allOf(pipelined.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+            double pipelineRate = MESSAGES / ((System.nanoTime() - start) / 1e9);
+
+            System.out.printf("sendMessage: %.0f msg/s, send pipeline: %.0f msg/s%n", directRate, pipelineRate);
+            assertEquals(2L * MESSAGES, messageRepository.count());
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
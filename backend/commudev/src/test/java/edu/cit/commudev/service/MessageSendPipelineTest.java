@@ -0,0 +1,78 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.MessageDto;
+import edu.cit.commudev.dto.MessageEventDto;
+import edu.cit.commudev.entity.Conversation;
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.repository.ConversationRepository;
+import edu.cit.commudev.repository.MessageRepository;
+import edu.cit.commudev.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest
+// The writer commits on its own thread, so test data has to be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MessageSendPipeline.class, MessageSendPipelineTest.FailingListener.class})
+class MessageSendPipelineTest {
+
+    @Autowired
+    private MessageSendPipeline messageSendPipeline;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @AfterEach
+    void tearDown() {
+        messageRepository.deleteAll();
+        conversationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheWriter() throws Exception {
+        User alice = userRepository.save(user("alice"));
+        User bob = userRepository.save(user("bob"));
+        Conversation conversation = new Conversation();
+        conversation.addParticipant(alice);
+        conversation.addParticipant(bob);
+        Long conversationId = conversationRepository.save(conversation).getId();
+
+        CompletableFuture<MessageDto> first = messageSendPipeline.submit(conversationId, alice, "first");
+        CompletableFuture<MessageDto> second = messageSendPipeline.submit(conversationId, bob, "second");
+        assertNotNull(first.get(5, TimeUnit.SECONDS).getId());
+        assertNotNull(second.get(5, TimeUnit.SECONDS).getId());
+
+        // The writer survived the listener failures and still takes new sends
+        assertNotNull(messageSendPipeline.submit(conversationId, alice, "third").get(5, TimeUnit.SECONDS).getId());
+        assertEquals(3, messageRepository.count());
+    }
+
+    @TestConfiguration
+    static class FailingListener {
+        @EventListener
+        public void onMessageEvent(MessageEventDto event) {
+            throw new IllegalStateException("listener failure");
+        }
+    }
+}
\ No newline at end of file
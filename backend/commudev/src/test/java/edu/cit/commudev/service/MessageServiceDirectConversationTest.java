@@ -0,0 +1,98 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.ConversationDto;
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.repository.ConversationRepository;
+import edu.cit.commudev.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Direct conversations are created in their own transactions, so this runs with REPEATABLE READ
+ * (the MySQL/InnoDB default) where a stale snapshot would hide the freshly created row.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:direct-conversations;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.transaction-isolation=TRANSACTION_REPEATABLE_READ"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MessageService.class, ConversationAccessCache.class, TypingIndicatorService.class})
+class MessageServiceDirectConversationTest {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(user("alice"));
+        bob = userRepository.save(user("bob"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        conversationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void firstChatCreatesAndReturnsTheConversation() {
+        ConversationDto created = messageService.getOrCreateConversation(alice.getId(), bob.getId());
+        assertEquals(bob.getId(), created.getOtherUserId());
+        assertEquals("Bob Tester", created.getOtherUserName());
+
+        ConversationDto reverse = messageService.getOrCreateConversation(bob.getId(), alice.getId());
+        assertEquals(created.getId(), reverse.getId());
+        assertEquals(alice.getId(), reverse.getOtherUserId());
+        assertEquals(1, conversationRepository.count());
+    }
+
+    @Test
+    void concurrentFirstChatsShareOneConversation() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<ConversationDto>> results = new ArrayList<>();
+            results.add(executor.submit(() -> {
+                start.await();
+                return messageService.getOrCreateConversation(alice.getId(), bob.getId());
+            }));
+            results.add(executor.submit(() -> {
+                start.await();
+                return messageService.getOrCreateConversation(bob.getId(), alice.getId());
+            }));
+            start.countDown();
+
+            assertEquals(results.get(0).get().getId(), results.get(1).get().getId());
+            assertEquals(1, conversationRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.dto.ConversationDto;
+import edu.cit.commudev.dto.MessageDto;
+import edu.cit.commudev.entity.Conversation;
+import edu.cit.commudev.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards the inbox read path against N+1 queries: the statement count must not grow with the inbox size.
+ */
+@DataJpaTest
+@Import({MessageService.class, ConversationAccessCache.class, TypingIndicatorService.class})
+class MessageServiceInboxQueryTest {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void inboxUsesOneQueryRegardlessOfSize() {
+        User owner = persistUser("owner");
+
+        createConversationsWithUnread(owner, 1, 0);
+        assertEquals(1, countInboxQueries(owner, 1));
+
+        createConversationsWithUnread(owner, 10, 1);
+        assertEquals(1, countInboxQueries(owner, 11));
+    }
+
+    @Test
+    void inboxReportsOtherParticipantAndUnreadCount() {
+        User owner = persistUser("owner");
+        createConversationsWithUnread(owner, 1, 0);
+        entityManager.clear();
+
+        List<ConversationDto> inbox = messageService.getUserConversations(owner.getId());
+
+        assertEquals(1, inbox.size());
+        ConversationDto dto = inbox.get(0);
+        assertEquals("Other0 Tester", dto.getOtherUserName());
+        assertEquals("other0", dto.getOtherUsername());
+        assertEquals(2, dto.getUnreadCount());
+    }
+
+    @Test
+    void unreadCountersFollowReadsAndReconcile() {
+        User owner = persistUser("owner");
+        createConversationsWithUnread(owner, 1, 0);
+        Long conversationId = messageService.getUserConversations(owner.getId()).get(0).getId();
+
+        assertEquals(2, messageService.getUnreadMessageCount(owner.getId()));
+
+        messageService.markMessagesAsRead(conversationId, owner.getId());
+        entityManager.clear();
+        assertEquals(0, messageService.getUnreadMessageCount(owner.getId()));
+
+        // Simulate drift and let the reconciliation job repair it
+        entityManager.createQuery("UPDATE ConversationParticipant p SET p.unreadCount = 7").executeUpdate();
+        messageService.reconcileUnreadCounts();
+        entityManager.clear();
+        assertEquals(0, messageService.getUnreadMessageCount(owner.getId()));
+    }
+
+    private int countInboxQueries(User owner, int expectedSize) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ConversationDto> inbox = messageService.getUserConversations(owner.getId());
+        assertEquals(expectedSize, inbox.size());
+
+        return (int) statistics.getPrepareStatementCount();
+    }
+
+    private void createConversationsWithUnread(User owner, int count, int offset) {
+        for (int i = offset; i < offset + count; i++) {
+            User other = persistUser("other" + i);
+
+            Conversation conversation = new Conversation();
+            conversation.addParticipant(owner);
+            conversation.addParticipant(other);
+            entityManager.persist(conversation);
+
+            entityManager.flush();
+
+            for (int j = 0; j < 2; j++) {
+                MessageDto message = new MessageDto();
+                message.setSenderId(other.getId());
+                message.setText("hello " + j);
+                messageService.sendMessage(conversation.getId(), message);
+            }
+        }
+        entityManager.flush();
+    }
+
+    private User persistUser(String username) {
+        User user = user(username);
+        entityManager.persist(user);
+        return user;
+    }
+}
\ No newline at end of file
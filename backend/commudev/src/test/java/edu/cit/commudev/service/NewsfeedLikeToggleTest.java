@@ -0,0 +1,142 @@
+package edu.cit.commudev.service;
+
+import edu.cit.commudev.config.CurrentUserProvider;
+import edu.cit.commudev.dto.LikeStatusDto;
+import edu.cit.commudev.entity.NewsfeedEntity;
+import edu.cit.commudev.entity.User;
+import edu.cit.commudev.repository.NewsfeedRepo;
+import edu.cit.commudev.repository.NotificationRepository;
+import edu.cit.commudev.repository.PostLikeRepository;
+import edu.cit.commudev.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static edu.cit.commudev.TestFixtures.post;
+import static edu.cit.commudev.TestFixtures.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+// Toggles run in their own transactions, so test data has to be committed
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({NewsfeedService.class, CurrentUserProvider.class, NotificationService.class, UserService.class,
+        NewsfeedVersionProvider.class, DisabledUserRegistry.class})
+class NewsfeedLikeToggleTest {
+
+    @Autowired
+    private NewsfeedService newsfeedService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NewsfeedRepo newsfeedRepo;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private User alice;
+    private NewsfeedEntity post;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(user("alice"));
+        post = newsfeedRepo.save(post(alice, "hello"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        notificationRepository.deleteAll();
+        postLikeRepository.deleteAll();
+        newsfeedRepo.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void toggleLikesThenUnlikes() {
+        User bob = userRepository.save(user("bob"));
+        authenticate(bob);
+
+        LikeStatusDto liked = newsfeedService.toggleLike(post.getNewsfeedId());
+        assertTrue(liked.isLiked());
+        assertEquals(1, liked.getLikeCount());
+        assertEquals(1, notificationRepository.findByRelatedPostId(post.getNewsfeedId()).size());
+
+        LikeStatusDto unliked = newsfeedService.toggleLike(post.getNewsfeedId());
+        assertFalse(unliked.isLiked());
+        assertEquals(0, unliked.getLikeCount());
+        assertEquals(0, postLikeRepository.count());
+    }
+
+    @Test
+    void toggleOnMissingPostFails() {
+        authenticate(alice);
+        assertThrows(NoSuchElementException.class, () -> newsfeedService.toggleLike(-1));
+        assertEquals(0, postLikeRepository.count());
+    }
+
+    @Test
+    void concurrentTogglesKeepCounterInSyncWithLikes() throws Exception {
+        List<User> likers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            likers.add(userRepository.save(user("user" + i)));
+        }
+
+        // Every liker double-clicks: two toggles race for the same (user, post) pair
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> toggles = new ArrayList<>();
+        try {
+            for (User liker : likers) {
+                for (int click = 0; click < 2; click++) {
+                    toggles.add(executor.submit(() -> {
+                        start.await();
+                        authenticate(liker);
+                        try {
+                            return newsfeedService.toggleLike(post.getNewsfeedId());
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                        }
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> toggle : toggles) {
+                toggle.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Two toggles each means nobody ends up liking the post, and the counter agrees
+        assertEquals(0, postLikeRepository.count());
+        assertEquals(0, newsfeedRepo.findLikeCount(post.getNewsfeedId()));
+    }
+
+    private void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
\ No newline at end of file
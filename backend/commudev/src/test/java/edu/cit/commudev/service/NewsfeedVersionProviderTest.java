@@ -0,0 +1,53 @@
+package edu.cit.commudev.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+// Bumps are deferred to commit, so the test needs real transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(NewsfeedVersionProvider.class)
+class NewsfeedVersionProviderTest {
+
+    @Autowired
+    private NewsfeedVersionProvider versionProvider;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void versionMovesOnlyWhenChangesCommit() {
+        String initial = version();
+
+        versionProvider.markChanged();
+        String afterDirectChange = version();
+        assertEquals(Long.parseLong(initial) + 1, Long.parseLong(afterDirectChange));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            versionProvider.markChanged();
+            // Not visible to pollers before the write commits
+            assertEquals(afterDirectChange, version());
+        });
+        assertEquals(Long.parseLong(afterDirectChange) + 1, Long.parseLong(version()));
+
+        String beforeRollback = version();
+        transaction.executeWithoutResult(status -> {
+            versionProvider.markChanged();
+            status.setRollbackOnly();
+        });
+        assertEquals(beforeRollback, version());
+    }
+
+    private String version() {
+        return versionProvider.getVersion(null, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package edu.cit.commudev.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHashingExecutorTest {
+
+    @Test
+    void rejectsWorkBeyondPoolAndQueue() throws Exception {
+        PasswordHashingExecutor hashing = new PasswordHashingExecutor(1, 1, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // One task runs, one waits in the queue...
+            callers.submit(() -> hashing.execute(() -> {
+                started.countDown();
+                await(release);
+                return "first";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            callers.submit(() -> hashing.execute(() -> "queued"));
+            Thread.sleep(100);
+
+            // ...so a third is shed immediately
+            assertThrows(RejectedExecutionException.class, () -> hashing.execute(() -> "rejected"));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            hashing.stop();
+        }
+    }
+
+    @Test
+    void propagatesTaskExceptions() {
+        PasswordHashingExecutor hashing = new PasswordHashingExecutor(1, 1, 5_000);
+        try {
+            assertEquals("hash", hashing.execute(() -> "hash"));
+            assertThrows(BadCredentialsException.class, () -> hashing.execute(() -> {
+                throw new BadCredentialsException("Bad credentials");
+            }));
+        } finally {
+            hashing.stop();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package edu.cit.commudev.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecurityLoggerTest {
+
+    private Logger logger;
+    private Level previousLevel;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        logger = (Logger) LoggerFactory.getLogger(SecurityLogger.class);
+        previousLevel = logger.getLevel();
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    void samplesEachEventTypeIndependently() {
+        logger.setLevel(Level.DEBUG);
+        SecurityLogger securityLogger = new SecurityLogger(10, 1);
+
+        for (int i = 0; i < 25; i++) {
+            securityLogger.logTokenAccepted("alice");
+            securityLogger.logTokenRejected("Invalid token");
+        }
+
+        long accepted = countEvents("event=TOKEN_ACCEPTED");
+        long rejected = countEvents("event=TOKEN_REJECTED");
+        assertEquals(3, accepted);
+        assertEquals(25, rejected);
+    }
+
+    @Test
+    void skipsEventsBelowTheConfiguredLevel() {
+        logger.setLevel(Level.INFO);
+        SecurityLogger securityLogger = new SecurityLogger(1, 1);
+
+        securityLogger.logTokenAccepted("alice");
+        securityLogger.logAuthenticationError(new IllegalStateException("boom"));
+
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.ERROR, event.getLevel());
+        assertTrue(event.getFormattedMessage().contains("error=\"boom\""));
+        assertNotNull(event.getThrowableProxy());
+    }
+
+    private long countEvents(String marker) {
+        return appender.list.stream()
+                .filter(event -> event.getFormattedMessage().startsWith(marker))
+                .count();
+    }
+}
\ No newline at end of file